@@ -3,7 +3,9 @@ package com.sparkwave.login.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 
@@ -11,19 +13,34 @@ import java.time.LocalDateTime;
  * Entidade que representa um registro de acesso no sistema.
  */
 @Entity
-@Table(name = "access_logs")
+@Table(name = "access_logs",
+       indexes = {
+           @Index(name = "idx_access_logs_user_time", columnList = "user_id, access_time, id"),
+           @Index(name = "idx_access_logs_time", columnList = "access_time, id"),
+           @Index(name = "idx_access_logs_status_time", columnList = "status, access_time, id")
+       })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class AccessLog {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "access_logs_seq")
+    @SequenceGenerator(name = "access_logs_seq", sequenceName = "access_logs_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
 
+    /**
+     * ID do usuário, lido da mesma coluna da associação sem carregar o usuário.
+     * A gravação é feita pela associação {@link #user}.
+     */
+    @Column(name = "user_id", insertable = false, updatable = false)
+    private Long userId;
+
     @Column(name = "access_time", nullable = false)
     private LocalDateTime accessTime;
 
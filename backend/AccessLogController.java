@@ -1,7 +1,8 @@
 package com.sparkwave.login.controller;
 
-import com.sparkwave.login.model.AccessLog;
-import com.sparkwave.login.model.User;
+import com.sparkwave.login.model.AccessLogPage;
+import com.sparkwave.login.model.InvalidCursorException;
+import com.sparkwave.login.model.MessageResponse;
 import com.sparkwave.login.service.AccessLogService;
 import com.sparkwave.login.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,10 +12,11 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 /**
  * Controlador para gerenciamento de logs de acesso na área de administração.
+ * Todas as listagens são paginadas por cursor: a resposta traz {@code nextCursor},
+ * que deve ser enviado no parâmetro {@code cursor} para obter a página seguinte.
  */
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -29,27 +31,43 @@ public class AccessLogController {
     private UserService userService;
 
     /**
-     * Obtém todos os logs de acesso.
+     * Obtém os logs de acesso, opcionalmente filtrados por período.
      *
-     * @return Lista de logs de acesso
+     * @param start Data/hora inicial (opcional)
+     * @param end Data/hora final (opcional)
+     * @param cursor Cursor da página anterior (opcional)
+     * @param size Tamanho da página
+     * @return Página de logs de acesso
      */
     @GetMapping
-    public ResponseEntity<List<AccessLog>> getAllAccessLogs() {
-        List<AccessLog> logs = accessLogService.findAll();
-        return ResponseEntity.ok(logs);
+    public ResponseEntity<AccessLogPage> getAllAccessLogs(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        if (start != null && end != null) {
+            return ResponseEntity.ok(accessLogService.findPageByPeriod(start, end, cursor, size));
+        }
+        return ResponseEntity.ok(accessLogService.findPage(cursor, size));
     }
 
     /**
      * Obtém logs de acesso por usuário.
      *
      * @param userId ID do usuário
-     * @return Lista de logs de acesso
+     * @param cursor Cursor da página anterior (opcional)
+     * @param size Tamanho da página
+     * @return Página de logs de acesso
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<AccessLog>> getAccessLogsByUser(@PathVariable Long userId) {
-        return userService.findById(userId)
-                .map(user -> ResponseEntity.ok(accessLogService.findByUser(user)))
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<AccessLogPage> getAccessLogsByUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        if (!userService.existsById(userId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(accessLogService.findPageByUser(userId, cursor, size));
     }
 
     /**
@@ -57,14 +75,17 @@ public class AccessLogController {
      *
      * @param start Data/hora inicial
      * @param end Data/hora final
-     * @return Lista de logs de acesso
+     * @param cursor Cursor da página anterior (opcional)
+     * @param size Tamanho da página
+     * @return Página de logs de acesso
      */
     @GetMapping("/period")
-    public ResponseEntity<List<AccessLog>> getAccessLogsByPeriod(
+    public ResponseEntity<AccessLogPage> getAccessLogsByPeriod(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
-        List<AccessLog> logs = accessLogService.findByPeriod(start, end);
-        return ResponseEntity.ok(logs);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(accessLogService.findPageByPeriod(start, end, cursor, size));
     }
 
     /**
@@ -73,28 +94,47 @@ public class AccessLogController {
      * @param userId ID do usuário
      * @param start Data/hora inicial
      * @param end Data/hora final
-     * @return Lista de logs de acesso
+     * @param cursor Cursor da página anterior (opcional)
+     * @param size Tamanho da página
+     * @return Página de logs de acesso
      */
     @GetMapping("/user/{userId}/period")
-    public ResponseEntity<List<AccessLog>> getAccessLogsByUserAndPeriod(
+    public ResponseEntity<AccessLogPage> getAccessLogsByUserAndPeriod(
             @PathVariable Long userId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
-        return userService.findById(userId)
-                .map(user -> ResponseEntity.ok(accessLogService.findByUserAndPeriod(user, start, end)))
-                .orElse(ResponseEntity.notFound().build());
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        if (!userService.existsById(userId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(accessLogService.findPageByUserAndPeriod(userId, start, end, cursor, size));
     }
 
     /**
      * Obtém logs de acesso por status.
      *
      * @param status Status
-     * @return Lista de logs de acesso
+     * @param cursor Cursor da página anterior (opcional)
+     * @param size Tamanho da página
+     * @return Página de logs de acesso
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<AccessLog>> getAccessLogsByStatus(@PathVariable String status) {
-        List<AccessLog> logs = accessLogService.findByStatus(status);
-        return ResponseEntity.ok(logs);
+    public ResponseEntity<AccessLogPage> getAccessLogsByStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(accessLogService.findPageByStatus(status, cursor, size));
     }
-}
 
+    /**
+     * Trata cursores de paginação inválidos.
+     *
+     * @param e Exceção
+     * @return Mensagem de erro
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<MessageResponse> handleInvalidCursor(InvalidCursorException e) {
+        return ResponseEntity.badRequest().body(new MessageResponse("Erro: " + e.getMessage()));
+    }
+}
@@ -0,0 +1,26 @@
+package com.sparkwave.login.service;
+
+import com.sparkwave.login.model.AccessLogView;
+
+import java.io.IOException;
+
+/**
+ * Escritor de um formato de exportação do histórico de acessos.
+ */
+public interface AccessLogExportWriter {
+
+    /**
+     * Escreve um log de acesso.
+     *
+     * @param log Log de acesso
+     * @throws IOException Em caso de falha de escrita
+     */
+    void write(AccessLogView log) throws IOException;
+
+    /**
+     * Finaliza o arquivo, escrevendo os dados pendentes.
+     *
+     * @throws IOException Em caso de falha de escrita
+     */
+    void finish() throws IOException;
+}
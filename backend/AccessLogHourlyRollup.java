@@ -0,0 +1,38 @@
+package com.sparkwave.login.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidade que representa a contagem pré-agregada de logs de acesso por hora, ação e status.
+ */
+@Entity
+@Table(name = "access_log_hourly_rollups",
+       uniqueConstraints = {
+           @UniqueConstraint(columnNames = {"bucket_start", "action", "status"})
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccessLogHourlyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "access_log_hourly_rollups_seq")
+    @SequenceGenerator(name = "access_log_hourly_rollups_seq", sequenceName = "access_log_hourly_rollups_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "action", nullable = false, length = 100)
+    private String action;
+
+    @Column(name = "status", nullable = false, length = 50)
+    private String status;
+
+    @Column(name = "access_count", nullable = false)
+    private long accessCount;
+}
@@ -0,0 +1,80 @@
+package com.sparkwave.login.repository;
+
+import com.sparkwave.login.model.AccessLogHourlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositório para as contagens horárias pré-agregadas de logs de acesso.
+ */
+@Repository
+public interface AccessLogHourlyRollupRepository extends JpaRepository<AccessLogHourlyRollup, Long> {
+
+    /**
+     * Incrementa a contagem de um intervalo existente.
+     *
+     * @param bucketStart Início da hora
+     * @param action Ação
+     * @param status Status
+     * @param delta Quantidade a somar
+     * @return Quantidade de linhas atualizadas
+     */
+    @Modifying
+    @Query("UPDATE AccessLogHourlyRollup r SET r.accessCount = r.accessCount + :delta " +
+            "WHERE r.bucketStart = :bucketStart AND r.action = :action AND r.status = :status")
+    int increment(@Param("bucketStart") LocalDateTime bucketStart,
+                  @Param("action") String action,
+                  @Param("status") String status,
+                  @Param("delta") long delta);
+
+    /**
+     * Remove as contagens anteriores a um instante.
+     *
+     * @param cutoff Instante limite (exclusivo)
+     * @return Quantidade de linhas removidas
+     */
+    @Modifying
+    @Query("DELETE FROM AccessLogHourlyRollup r WHERE r.bucketStart < :cutoff")
+    int deleteBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Remove as contagens a partir de um instante.
+     *
+     * @param start Instante inicial (inclusivo)
+     * @return Quantidade de linhas removidas
+     */
+    @Modifying
+    @Query("DELETE FROM AccessLogHourlyRollup r WHERE r.bucketStart >= :start")
+    int deleteFrom(@Param("start") LocalDateTime start);
+
+    /**
+     * Soma as contagens a partir de um instante, agrupadas por ação e status.
+     *
+     * @param start Início do período
+     * @return Linhas com [ação, status, quantidade]
+     */
+    @Query("SELECT r.action, r.status, SUM(r.accessCount) FROM AccessLogHourlyRollup r " +
+            "WHERE r.bucketStart >= :start GROUP BY r.action, r.status")
+    List<Object[]> sumByActionAndStatus(@Param("start") LocalDateTime start);
+
+    /**
+     * Soma as contagens de uma ação e status a partir de um instante, agrupadas por dia.
+     *
+     * @param action Ação
+     * @param status Status
+     * @param start Início do período
+     * @return Linhas com [dia, quantidade]
+     */
+    @Query("SELECT CAST(r.bucketStart AS LocalDate), SUM(r.accessCount) FROM AccessLogHourlyRollup r " +
+            "WHERE r.action = :action AND r.status = :status AND r.bucketStart >= :start " +
+            "GROUP BY CAST(r.bucketStart AS LocalDate)")
+    List<Object[]> sumByDay(@Param("action") String action,
+                            @Param("status") String status,
+                            @Param("start") LocalDateTime start);
+}
@@ -0,0 +1,79 @@
+package com.sparkwave.login.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * DTO para uma página de logs de acesso paginada por cursor (keyset) sobre (access_time, id).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccessLogPage {
+    private List<AccessLogView> content;
+    private int size;
+    private String nextCursor;
+    private boolean hasMore;
+
+    /**
+     * Gera o cursor que aponta para a posição logo após o log informado.
+     *
+     * @param log Último log da página
+     * @return Cursor codificado
+     */
+    public static String encodeCursor(AccessLogView log) {
+        String raw = log.getAccessTime() + "|" + log.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica a data/hora de um cursor.
+     *
+     * @param cursor Cursor codificado
+     * @return Data/hora do último log retornado
+     * @throws InvalidCursorException Se o cursor for inválido
+     */
+    public static LocalDateTime decodeCursorTime(String cursor) {
+        try {
+            return LocalDateTime.parse(decode(cursor)[0]);
+        } catch (DateTimeParseException e) {
+            throw new InvalidCursorException("Cursor inválido", e);
+        }
+    }
+
+    /**
+     * Decodifica o ID de um cursor.
+     *
+     * @param cursor Cursor codificado
+     * @return ID do último log retornado
+     * @throws InvalidCursorException Se o cursor for inválido
+     */
+    public static Long decodeCursorId(String cursor) {
+        try {
+            return Long.valueOf(decode(cursor)[1]);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Cursor inválido", e);
+        }
+    }
+
+    private static String[] decode(String cursor) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Cursor inválido", e);
+        }
+        String[] parts = raw.split("\\|");
+        if (parts.length != 2) {
+            throw new InvalidCursorException("Cursor inválido");
+        }
+        return parts;
+    }
+}
@@ -1,18 +1,34 @@
 package com.sparkwave.login.repository;
 
 import com.sparkwave.login.model.AccessLog;
+import com.sparkwave.login.model.AccessLogView;
 import com.sparkwave.login.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repositório para operações de banco de dados relacionadas a logs de acesso.
  */
 @Repository
 public interface AccessLogRepository extends JpaRepository<AccessLog, Long> {
+
+    String VIEW_SELECT = "SELECT new com.sparkwave.login.model.AccessLogView(" +
+            "a.id, u.id, u.username, a.accessTime, a.ipAddress, a.userAgent, a.action, a.status) " +
+            "FROM AccessLog a JOIN a.user u ";
+
+    String SEEK_CONDITION = "(a.accessTime < :cursorTime OR (a.accessTime = :cursorTime AND a.id < :cursorId)) ";
+
+    String SEEK_ORDER = "ORDER BY a.accessTime DESC, a.id DESC";
     
     /**
      * Busca logs de acesso por usuário.
@@ -48,5 +64,176 @@ public interface AccessLogRepository extends JpaRepository<AccessLog, Long> {
      * @return Lista de logs de acesso
      */
     List<AccessLog> findByStatus(String status);
-}
 
+    /**
+     * Busca uma página de logs de acesso posterior ao cursor, do mais recente para o mais antigo.
+     *
+     * @param cursorTime Data/hora do último log da página anterior
+     * @param cursorId ID do último log da página anterior
+     * @param pageable Limite de registros
+     * @return Lista de logs de acesso
+     */
+    @Query(VIEW_SELECT + "WHERE " + SEEK_CONDITION + SEEK_ORDER)
+    List<AccessLogView> findPage(@Param("cursorTime") LocalDateTime cursorTime,
+                                 @Param("cursorId") Long cursorId,
+                                 Pageable pageable);
+
+    /**
+     * Busca uma página de logs de acesso de um usuário posterior ao cursor.
+     *
+     * @param userId ID do usuário
+     * @param cursorTime Data/hora do último log da página anterior
+     * @param cursorId ID do último log da página anterior
+     * @param pageable Limite de registros
+     * @return Lista de logs de acesso
+     */
+    @Query(VIEW_SELECT + "WHERE u.id = :userId AND " + SEEK_CONDITION + SEEK_ORDER)
+    List<AccessLogView> findPageByUser(@Param("userId") Long userId,
+                                       @Param("cursorTime") LocalDateTime cursorTime,
+                                       @Param("cursorId") Long cursorId,
+                                       Pageable pageable);
+
+    /**
+     * Busca uma página de logs de acesso de um período posterior ao cursor.
+     *
+     * @param startTime Data/hora inicial
+     * @param endTime Data/hora final
+     * @param cursorTime Data/hora do último log da página anterior
+     * @param cursorId ID do último log da página anterior
+     * @param pageable Limite de registros
+     * @return Lista de logs de acesso
+     */
+    @Query(VIEW_SELECT + "WHERE a.accessTime BETWEEN :startTime AND :endTime AND " + SEEK_CONDITION + SEEK_ORDER)
+    List<AccessLogView> findPageByPeriod(@Param("startTime") LocalDateTime startTime,
+                                         @Param("endTime") LocalDateTime endTime,
+                                         @Param("cursorTime") LocalDateTime cursorTime,
+                                         @Param("cursorId") Long cursorId,
+                                         Pageable pageable);
+
+    /**
+     * Busca uma página de logs de acesso de um usuário em um período posterior ao cursor.
+     *
+     * @param userId ID do usuário
+     * @param startTime Data/hora inicial
+     * @param endTime Data/hora final
+     * @param cursorTime Data/hora do último log da página anterior
+     * @param cursorId ID do último log da página anterior
+     * @param pageable Limite de registros
+     * @return Lista de logs de acesso
+     */
+    @Query(VIEW_SELECT + "WHERE u.id = :userId AND a.accessTime BETWEEN :startTime AND :endTime AND "
+            + SEEK_CONDITION + SEEK_ORDER)
+    List<AccessLogView> findPageByUserAndPeriod(@Param("userId") Long userId,
+                                                @Param("startTime") LocalDateTime startTime,
+                                                @Param("endTime") LocalDateTime endTime,
+                                                @Param("cursorTime") LocalDateTime cursorTime,
+                                                @Param("cursorId") Long cursorId,
+                                                Pageable pageable);
+
+    /**
+     * Busca uma página de logs de acesso com um status posterior ao cursor.
+     *
+     * @param status Status
+     * @param cursorTime Data/hora do último log da página anterior
+     * @param cursorId ID do último log da página anterior
+     * @param pageable Limite de registros
+     * @return Lista de logs de acesso
+     */
+    @Query(VIEW_SELECT + "WHERE a.status = :status AND " + SEEK_CONDITION + SEEK_ORDER)
+    List<AccessLogView> findPageByStatus(@Param("status") String status,
+                                         @Param("cursorTime") LocalDateTime cursorTime,
+                                         @Param("cursorId") Long cursorId,
+                                         Pageable pageable);
+
+    /**
+     * Conta os logs de acesso anteriores a um instante agrupados por dia, hora, ação e status.
+     *
+     * @param cutoff Instante limite (exclusivo)
+     * @return Linhas com [dia, hora, ação, status, quantidade]
+     */
+    @Query("SELECT CAST(a.accessTime AS LocalDate), EXTRACT(HOUR FROM a.accessTime), a.action, a.status, COUNT(a) " +
+            "FROM AccessLog a WHERE a.accessTime < :cutoff " +
+            "GROUP BY CAST(a.accessTime AS LocalDate), EXTRACT(HOUR FROM a.accessTime), a.action, a.status")
+    List<Object[]> countByHourActionAndStatus(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Conta os logs de acesso a partir de um instante agrupados por dia, hora, ação e status.
+     *
+     * @param start Instante inicial (inclusivo)
+     * @return Linhas com [dia, hora, ação, status, quantidade]
+     */
+    @Query("SELECT CAST(a.accessTime AS LocalDate), EXTRACT(HOUR FROM a.accessTime), a.action, a.status, COUNT(a) " +
+            "FROM AccessLog a WHERE a.accessTime >= :start " +
+            "GROUP BY CAST(a.accessTime AS LocalDate), EXTRACT(HOUR FROM a.accessTime), a.action, a.status")
+    List<Object[]> countByHourActionAndStatusSince(@Param("start") LocalDateTime start);
+
+    /**
+     * Conta os logs de acesso anteriores a um instante agrupados por usuário, dia, ação e status.
+     *
+     * @param cutoff Instante limite (exclusivo)
+     * @return Linhas com [ID do usuário, dia, ação, status, quantidade]
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT a.userId, CAST(a.accessTime AS LocalDate), a.action, a.status, COUNT(a) " +
+            "FROM AccessLog a WHERE a.accessTime < :cutoff " +
+            "GROUP BY a.userId, CAST(a.accessTime AS LocalDate), a.action, a.status")
+    Stream<Object[]> countByUserDayActionAndStatus(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Conta os logs de acesso a partir de um instante agrupados por usuário, dia, ação e status.
+     *
+     * @param start Instante inicial (inclusivo)
+     * @return Linhas com [ID do usuário, dia, ação, status, quantidade]
+     */
+    @Query("SELECT a.userId, CAST(a.accessTime AS LocalDate), a.action, a.status, COUNT(a) " +
+            "FROM AccessLog a WHERE a.accessTime >= :start " +
+            "GROUP BY a.userId, CAST(a.accessTime AS LocalDate), a.action, a.status")
+    List<Object[]> countByUserDayActionAndStatusSince(@Param("start") LocalDateTime start);
+
+    /**
+     * Busca os logs de acesso mais recentes de um usuário com uma ação e status.
+     *
+     * @param userId ID do usuário
+     * @param action Ação
+     * @param status Status
+     * @param pageable Limite de registros
+     * @return Lista de logs de acesso, do mais recente para o mais antigo
+     */
+    @Query(VIEW_SELECT + "WHERE u.id = :userId AND a.action = :action AND a.status = :status " + SEEK_ORDER)
+    List<AccessLogView> findLatestByUserAndActionAndStatus(@Param("userId") Long userId,
+                                                           @Param("action") String action,
+                                                           @Param("status") String status,
+                                                           Pageable pageable);
+
+    /**
+     * Percorre os logs de acesso de um período em ordem cronológica, lendo do banco em blocos.
+     * Os filtros de usuário, status e ação são ignorados quando a flag correspondente é true.
+     *
+     * @param startTime Data/hora inicial
+     * @param endTime Data/hora final
+     * @param anyUser true para não filtrar por usuário
+     * @param userId ID do usuário
+     * @param anyStatus true para não filtrar por status
+     * @param status Status
+     * @param anyAction true para não filtrar por ação
+     * @param action Ação
+     * @return Stream de logs de acesso (deve ser fechado após o uso)
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(VIEW_SELECT + "WHERE a.accessTime BETWEEN :startTime AND :endTime " +
+            "AND (:anyUser = true OR u.id = :userId) " +
+            "AND (:anyStatus = true OR a.status = :status) " +
+            "AND (:anyAction = true OR a.action = :action) " +
+            "ORDER BY a.accessTime, a.id")
+    Stream<AccessLogView> streamForExport(@Param("startTime") LocalDateTime startTime,
+                                          @Param("endTime") LocalDateTime endTime,
+                                          @Param("anyUser") boolean anyUser,
+                                          @Param("userId") Long userId,
+                                          @Param("anyStatus") boolean anyStatus,
+                                          @Param("status") String status,
+                                          @Param("anyAction") boolean anyAction,
+                                          @Param("action") String action);
+}
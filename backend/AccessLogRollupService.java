@@ -0,0 +1,242 @@
+package com.sparkwave.login.service;
+
+import com.sparkwave.login.model.AccessLog;
+import com.sparkwave.login.model.AccessLogHourlyRollup;
+import com.sparkwave.login.model.AccessLogUserDailyRollup;
+import com.sparkwave.login.repository.AccessLogHourlyRollupRepository;
+import com.sparkwave.login.repository.AccessLogRepository;
+import com.sparkwave.login.repository.AccessLogUserDailyRollupRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Serviço que mantém as contagens pré-agregadas de logs de acesso usadas pelo dashboard.
+ */
+@Service
+public class AccessLogRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccessLogRollupService.class);
+
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private static final int BACKFILL_CHUNK_SIZE = 1000;
+
+    @Autowired
+    private AccessLogRepository accessLogRepository;
+
+    @Autowired
+    private AccessLogHourlyRollupRepository hourlyRollupRepository;
+
+    @Autowired
+    private AccessLogUserDailyRollupRepository userDailyRollupRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${sparkwave.app.rollup.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Value("${sparkwave.app.rollup.rebuild-margin-ms:300000}")
+    private long rebuildMarginMs;
+
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    /**
+     * Soma um lote de logs de acesso às contagens pré-agregadas, na transação que os grava.
+     *
+     * @param logs Logs de acesso
+     */
+    @Transactional
+    public void apply(List<AccessLog> logs) {
+        Map<HourlyKey, Long> hourly = new HashMap<>();
+        Map<DailyKey, Long> daily = new HashMap<>();
+
+        for (AccessLog log : logs) {
+            String action = normalize(log.getAction());
+            String status = normalize(log.getStatus());
+            hourly.merge(new HourlyKey(log.getAccessTime().truncatedTo(ChronoUnit.HOURS), action, status), 1L, Long::sum);
+            daily.merge(new DailyKey(log.getUserId(), log.getAccessTime().toLocalDate(), action, status), 1L, Long::sum);
+        }
+
+        hourly.forEach((key, delta) -> {
+            if (hourlyRollupRepository.increment(key.bucketStart(), key.action(), key.status(), delta) == 0) {
+                hourlyRollupRepository.save(
+                        new AccessLogHourlyRollup(null, key.bucketStart(), key.action(), key.status(), delta));
+            }
+        });
+
+        daily.forEach((key, delta) -> {
+            if (userDailyRollupRepository.increment(key.userId(), key.day(), key.action(), key.status(), delta) == 0) {
+                userDailyRollupRepository.save(
+                        new AccessLogUserDailyRollup(null, key.userId(), key.day(), key.action(), key.status(), delta));
+            }
+        });
+    }
+
+    /**
+     * Obtém o lock que a gravação de logs mantém enquanto soma incrementos às contagens.
+     * A reconstrução dos intervalos recentes adquire o lock exclusivo correspondente.
+     *
+     * @return Lock compartilhado dos incrementos
+     */
+    public Lock incrementLock() {
+        return rebuildLock.readLock();
+    }
+
+    /**
+     * Inicia a reconstrução das contagens em segundo plano.
+     *
+     * @return false se já houver uma reconstrução em andamento
+     */
+    public boolean startRebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+
+        Thread rebuild = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (Exception e) {
+                logger.error("Erro ao reconstruir as contagens de logs de acesso", e);
+            } finally {
+                rebuilding.set(false);
+            }
+        }, "access-log-rollup-rebuild");
+        rebuild.setDaemon(true);
+        rebuild.start();
+        return true;
+    }
+
+    /**
+     * Recalcula as contagens pré-agregadas a partir da tabela access_logs, incluindo a hora e o
+     * dia atuais. Os intervalos anteriores à margem de gravação não recebem mais incrementos e são
+     * reconstruídos sem bloquear a gravação de logs; os intervalos recentes são reconstruídos com
+     * os incrementos suspensos, para que nenhum log seja contado duas vezes.
+     *
+     * @return Quantidade de linhas de contagem geradas
+     */
+    long rebuild() {
+        LocalDateTime settled = LocalDateTime.now().minusNanos(rebuildMarginMs * 1_000_000);
+        LocalDateTime hourCutoff = settled.truncatedTo(ChronoUnit.HOURS);
+        LocalDate dayCutoff = settled.toLocalDate();
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Long created = transactionTemplate.execute(status -> {
+            long rows = 0;
+
+            hourlyRollupRepository.deleteBefore(hourCutoff);
+            rows += saveHourly(accessLogRepository.countByHourActionAndStatus(hourCutoff));
+
+            userDailyRollupRepository.deleteBefore(dayCutoff);
+            try (Stream<Object[]> stream = accessLogRepository.countByUserDayActionAndStatus(dayCutoff.atStartOfDay())) {
+                List<AccessLogUserDailyRollup> chunk = new ArrayList<>(BACKFILL_CHUNK_SIZE);
+                for (Object[] row : (Iterable<Object[]>) stream::iterator) {
+                    chunk.add(toDaily(row));
+                    if (chunk.size() == BACKFILL_CHUNK_SIZE) {
+                        rows += saveChunk(chunk);
+                    }
+                }
+                rows += saveChunk(chunk);
+            }
+
+            return rows;
+        });
+
+        rebuildLock.writeLock().lock();
+        try {
+            Long recent = transactionTemplate.execute(status -> {
+                hourlyRollupRepository.deleteFrom(hourCutoff);
+                long rows = saveHourly(accessLogRepository.countByHourActionAndStatusSince(hourCutoff));
+
+                userDailyRollupRepository.deleteFrom(dayCutoff);
+                List<AccessLogUserDailyRollup> chunk = new ArrayList<>(BACKFILL_CHUNK_SIZE);
+                for (Object[] row : accessLogRepository.countByUserDayActionAndStatusSince(dayCutoff.atStartOfDay())) {
+                    chunk.add(toDaily(row));
+                    if (chunk.size() == BACKFILL_CHUNK_SIZE) {
+                        rows += saveChunk(chunk);
+                    }
+                }
+                return rows + saveChunk(chunk);
+            });
+            created = (created != null ? created : 0) + (recent != null ? recent : 0);
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+
+        logger.info("Contagens de logs de acesso reconstruídas: {} linhas", created);
+        return created;
+    }
+
+    /**
+     * Reconstrói as contagens na inicialização se elas ainda não existirem e já houver logs gravados.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!backfillOnStartup || hourlyRollupRepository.count() > 0 || accessLogRepository.count() == 0) {
+            return;
+        }
+        startRebuild();
+    }
+
+    private long saveHourly(List<Object[]> counts) {
+        List<AccessLogHourlyRollup> hourly = new ArrayList<>(counts.size());
+        for (Object[] row : counts) {
+            LocalDateTime bucketStart = ((LocalDate) row[0]).atTime(((Number) row[1]).intValue(), 0);
+            hourly.add(new AccessLogHourlyRollup(null, bucketStart,
+                    normalize((String) row[2]), normalize((String) row[3]), (Long) row[4]));
+        }
+        hourlyRollupRepository.saveAll(hourly);
+        return hourly.size();
+    }
+
+    private AccessLogUserDailyRollup toDaily(Object[] row) {
+        return new AccessLogUserDailyRollup(null, (Long) row[0], (LocalDate) row[1],
+                normalize((String) row[2]), normalize((String) row[3]), (Long) row[4]);
+    }
+
+    private long saveChunk(List<AccessLogUserDailyRollup> chunk) {
+        int size = chunk.size();
+        userDailyRollupRepository.saveAll(chunk);
+        entityManager.flush();
+        entityManager.clear();
+        chunk.clear();
+        return size;
+    }
+
+    private String normalize(String value) {
+        return value != null ? value : UNKNOWN;
+    }
+
+    private record HourlyKey(LocalDateTime bucketStart, String action, String status) {
+    }
+
+    private record DailyKey(Long userId, LocalDate day, String action, String status) {
+    }
+}
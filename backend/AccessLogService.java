@@ -1,12 +1,17 @@
 package com.sparkwave.login.service;
 
 import com.sparkwave.login.model.AccessLog;
+import com.sparkwave.login.model.AccessLogPage;
+import com.sparkwave.login.model.AccessLogView;
 import com.sparkwave.login.model.User;
 import com.sparkwave.login.repository.AccessLogRepository;
+import com.sparkwave.login.repository.UserRepository;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -20,91 +25,175 @@ public class AccessLogService {
     @Autowired
     private AccessLogRepository accessLogRepository;
     
+    @Autowired
+    private AccessLogWriter accessLogWriter;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Value("${sparkwave.app.access-log.max-page-size:500}")
+    private int maxPageSize;
+    
+    private static final LocalDateTime FIRST_PAGE_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    
+    private static final int IP_ADDRESS_MAX_LENGTH = 50;
+    
+    private static final int USER_AGENT_MAX_LENGTH = 255;
+    
     /**
-     * Registra um acesso no sistema.
+     * Registra um acesso no sistema. O log é gravado em segundo plano pelo {@link AccessLogWriter}.
      *
      * @param user Usuário
      * @param action Ação realizada
      * @param status Status da ação
      * @param request Requisição HTTP
-     * @return Log de acesso criado
+     * @return Log de acesso enfileirado para gravação
      */
-    @Transactional
     public AccessLog logAccess(User user, String action, String status, HttpServletRequest request) {
+        return submit(user, user.getId(), action, status, request);
+    }
+    
+    /**
+     * Registra um acesso no sistema a partir do ID do usuário, sem carregá-lo do banco.
+     * O log é gravado em segundo plano pelo {@link AccessLogWriter}.
+     *
+     * @param userId ID do usuário
+     * @param action Ação realizada
+     * @param status Status da ação
+     * @param request Requisição HTTP
+     * @return Log de acesso enfileirado para gravação
+     */
+    public AccessLog logAccess(Long userId, String action, String status, HttpServletRequest request) {
+        return submit(userRepository.getReferenceById(userId), userId, action, status, request);
+    }
+    
+    private AccessLog submit(User user, Long userId, String action, String status, HttpServletRequest request) {
         AccessLog accessLog = new AccessLog();
         accessLog.setUser(user);
+        accessLog.setUserId(userId);
         accessLog.setAccessTime(LocalDateTime.now());
-        accessLog.setIpAddress(getClientIp(request));
-        accessLog.setUserAgent(request.getHeader("User-Agent"));
+        // Valores enviados pelo cliente são truncados ao tamanho das colunas
+        accessLog.setIpAddress(truncate(getClientIp(request), IP_ADDRESS_MAX_LENGTH));
+        accessLog.setUserAgent(truncate(request.getHeader("User-Agent"), USER_AGENT_MAX_LENGTH));
         accessLog.setAction(action);
         accessLog.setStatus(status);
         
-        return accessLogRepository.save(accessLog);
+        accessLogWriter.submit(accessLog);
+        return accessLog;
+    }
+    
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
     }
     
     /**
-     * Busca logs de acesso por usuário.
+     * Obtém uma página de todos os logs de acesso.
      *
-     * @param user Usuário
-     * @return Lista de logs de acesso
+     * @param cursor Cursor da página anterior (opcional)
+     * @param size Tamanho da página
+     * @return Página de logs de acesso
      */
-    public List<AccessLog> findByUser(User user) {
-        return accessLogRepository.findByUser(user);
+    public AccessLogPage findPage(String cursor, int size) {
+        return toPage(size, (cursorTime, cursorId, limit) ->
+                accessLogRepository.findPage(cursorTime, cursorId, limit), cursor);
     }
     
     /**
-     * Busca logs de acesso por usuário e período.
+     * Obtém uma página de logs de acesso de um usuário.
+     *
+     * @param userId ID do usuário
+     * @param cursor Cursor da página anterior (opcional)
+     * @param size Tamanho da página
+     * @return Página de logs de acesso
+     */
+    public AccessLogPage findPageByUser(Long userId, String cursor, int size) {
+        return toPage(size, (cursorTime, cursorId, limit) ->
+                accessLogRepository.findPageByUser(userId, cursorTime, cursorId, limit), cursor);
+    }
+    
+    /**
+     * Obtém uma página de logs de acesso de um período.
      *
-     * @param user Usuário
      * @param startTime Data/hora inicial
      * @param endTime Data/hora final
-     * @return Lista de logs de acesso
+     * @param cursor Cursor da página anterior (opcional)
+     * @param size Tamanho da página
+     * @return Página de logs de acesso
      */
-    public List<AccessLog> findByUserAndPeriod(User user, LocalDateTime startTime, LocalDateTime endTime) {
-        return accessLogRepository.findByUserAndAccessTimeBetween(user, startTime, endTime);
+    public AccessLogPage findPageByPeriod(LocalDateTime startTime, LocalDateTime endTime, String cursor, int size) {
+        return toPage(size, (cursorTime, cursorId, limit) ->
+                accessLogRepository.findPageByPeriod(startTime, endTime, cursorTime, cursorId, limit), cursor);
     }
     
     /**
-     * Busca logs de acesso por período.
+     * Obtém uma página de logs de acesso de um usuário em um período.
      *
+     * @param userId ID do usuário
      * @param startTime Data/hora inicial
      * @param endTime Data/hora final
-     * @return Lista de logs de acesso
+     * @param cursor Cursor da página anterior (opcional)
+     * @param size Tamanho da página
+     * @return Página de logs de acesso
      */
-    public List<AccessLog> findByPeriod(LocalDateTime startTime, LocalDateTime endTime) {
-        return accessLogRepository.findByAccessTimeBetween(startTime, endTime);
+    public AccessLogPage findPageByUserAndPeriod(Long userId, LocalDateTime startTime, LocalDateTime endTime,
+                                                 String cursor, int size) {
+        return toPage(size, (cursorTime, cursorId, limit) ->
+                accessLogRepository.findPageByUserAndPeriod(userId, startTime, endTime, cursorTime, cursorId, limit),
+                cursor);
     }
     
     /**
-     * Busca logs de acesso por status.
+     * Obtém uma página de logs de acesso com um status.
      *
      * @param status Status
-     * @return Lista de logs de acesso
+     * @param cursor Cursor da página anterior (opcional)
+     * @param size Tamanho da página
+     * @return Página de logs de acesso
      */
-    public List<AccessLog> findByStatus(String status) {
-        return accessLogRepository.findByStatus(status);
+    public AccessLogPage findPageByStatus(String status, String cursor, int size) {
+        return toPage(size, (cursorTime, cursorId, limit) ->
+                accessLogRepository.findPageByStatus(status, cursorTime, cursorId, limit), cursor);
     }
     
     /**
-     * Obtém todos os logs de acesso.
+     * Executa uma consulta paginada por cursor, buscando um registro a mais para saber se há próxima página.
      *
-     * @return Lista de logs de acesso
+     * @param size Tamanho solicitado, limitado ao máximo configurado
+     * @param query Consulta a executar
+     * @param cursor Cursor da página anterior (opcional)
+     * @return Página de logs de acesso
      */
-    public List<AccessLog> findAll() {
-        return accessLogRepository.findAll();
+    private AccessLogPage toPage(int size, PageQuery query, String cursor) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        LocalDateTime cursorTime = FIRST_PAGE_TIME;
+        Long cursorId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isEmpty()) {
+            cursorTime = AccessLogPage.decodeCursorTime(cursor);
+            cursorId = AccessLogPage.decodeCursorId(cursor);
+        }
+        
+        List<AccessLogView> rows = query.fetch(cursorTime, cursorId, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<AccessLogView> content = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? AccessLogPage.encodeCursor(content.get(content.size() - 1)) : null;
+        
+        return new AccessLogPage(content, pageSize, nextCursor, hasMore);
+    }
+    
+    @FunctionalInterface
+    private interface PageQuery {
+        List<AccessLogView> fetch(LocalDateTime cursorTime, Long cursorId, Pageable pageable);
     }
     
     /**
-     * Obtém o endereço IP do cliente.
+     * Obtém o endereço IP do cliente. Atrás de um proxy reverso, o endereço é resolvido a partir
+     * do X-Forwarded-For pelo servidor, apenas para proxies confiáveis
+     * ({@code server.forward-headers-strategy} e {@code server.tomcat.remoteip.internal-proxies}).
      *
      * @param request Requisição HTTP
      * @return Endereço IP
      */
-    private String getClientIp(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
+    public String getClientIp(HttpServletRequest request) {
         return request.getRemoteAddr();
     }
 }
@@ -0,0 +1,41 @@
+package com.sparkwave.login.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Entidade que representa a contagem pré-agregada de logs de acesso por usuário, dia, ação e status.
+ */
+@Entity
+@Table(name = "access_log_user_daily_rollups",
+       uniqueConstraints = {
+           @UniqueConstraint(columnNames = {"user_id", "access_day", "action", "status"})
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccessLogUserDailyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "access_log_user_daily_rollups_seq")
+    @SequenceGenerator(name = "access_log_user_daily_rollups_seq", sequenceName = "access_log_user_daily_rollups_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "access_day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "action", nullable = false, length = 100)
+    private String action;
+
+    @Column(name = "status", nullable = false, length = 50)
+    private String status;
+
+    @Column(name = "access_count", nullable = false)
+    private long accessCount;
+}
@@ -0,0 +1,68 @@
+package com.sparkwave.login.repository;
+
+import com.sparkwave.login.model.AccessLogUserDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repositório para as contagens diárias pré-agregadas de logs de acesso por usuário.
+ */
+@Repository
+public interface AccessLogUserDailyRollupRepository extends JpaRepository<AccessLogUserDailyRollup, Long> {
+
+    /**
+     * Incrementa a contagem de um dia existente.
+     *
+     * @param userId ID do usuário
+     * @param day Dia
+     * @param action Ação
+     * @param status Status
+     * @param delta Quantidade a somar
+     * @return Quantidade de linhas atualizadas
+     */
+    @Modifying
+    @Query("UPDATE AccessLogUserDailyRollup r SET r.accessCount = r.accessCount + :delta " +
+            "WHERE r.userId = :userId AND r.day = :day AND r.action = :action AND r.status = :status")
+    int increment(@Param("userId") Long userId,
+                  @Param("day") LocalDate day,
+                  @Param("action") String action,
+                  @Param("status") String status,
+                  @Param("delta") long delta);
+
+    /**
+     * Remove as contagens anteriores a um dia.
+     *
+     * @param cutoff Dia limite (exclusivo)
+     * @return Quantidade de linhas removidas
+     */
+    @Modifying
+    @Query("DELETE FROM AccessLogUserDailyRollup r WHERE r.day < :cutoff")
+    int deleteBefore(@Param("cutoff") LocalDate cutoff);
+
+    /**
+     * Remove as contagens a partir de um dia.
+     *
+     * @param start Dia inicial (inclusivo)
+     * @return Quantidade de linhas removidas
+     */
+    @Modifying
+    @Query("DELETE FROM AccessLogUserDailyRollup r WHERE r.day >= :start")
+    int deleteFrom(@Param("start") LocalDate start);
+
+    /**
+     * Soma as contagens de um usuário a partir de um dia, agrupadas por ação e status.
+     *
+     * @param userId ID do usuário
+     * @param start Dia inicial
+     * @return Linhas com [ação, status, quantidade]
+     */
+    @Query("SELECT r.action, r.status, SUM(r.accessCount) FROM AccessLogUserDailyRollup r " +
+            "WHERE r.userId = :userId AND r.day >= :start GROUP BY r.action, r.status")
+    List<Object[]> sumByActionAndStatus(@Param("userId") Long userId, @Param("start") LocalDate start);
+}
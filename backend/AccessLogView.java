@@ -0,0 +1,24 @@
+package com.sparkwave.login.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção de leitura de um log de acesso, sem o grafo da entidade do usuário.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccessLogView {
+    private Long id;
+    private Long userId;
+    private String username;
+    private LocalDateTime accessTime;
+    private String ipAddress;
+    private String userAgent;
+    private String action;
+    private String status;
+}
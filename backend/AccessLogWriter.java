@@ -0,0 +1,265 @@
+package com.sparkwave.login.service;
+
+import com.sparkwave.login.model.AccessLog;
+import com.sparkwave.login.repository.AccessLogRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Gravador assíncrono de logs de acesso. Os registros são enfileirados em memória pela
+ * thread da requisição e persistidos em lotes por uma thread em segundo plano.
+ */
+@Component
+public class AccessLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccessLogWriter.class);
+
+    /**
+     * Política aplicada quando a fila de registros está cheia.
+     */
+    public enum BackpressurePolicy {
+        /** Aguarda espaço na fila até o tempo limite configurado. */
+        BLOCK,
+        /** Descarta o registro mais antigo da fila. */
+        DROP_OLDEST,
+        /** Mantém apenas um a cada N registros enquanto a fila estiver cheia. */
+        SAMPLE
+    }
+
+    @Autowired
+    private AccessLogRepository accessLogRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AccessLogRollupService accessLogRollupService;
+
+    @Value("${sparkwave.app.access-log.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${sparkwave.app.access-log.batch-size:100}")
+    private int batchSize;
+
+    @Value("${sparkwave.app.access-log.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${sparkwave.app.access-log.backpressure:DROP_OLDEST}")
+    private BackpressurePolicy backpressurePolicy;
+
+    @Value("${sparkwave.app.access-log.sample-rate:10}")
+    private int sampleRate;
+
+    @Value("${sparkwave.app.access-log.block-timeout-ms:50}")
+    private long blockTimeoutMs;
+
+    @Value("${sparkwave.app.access-log.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    private LinkedBlockingDeque<AccessLog> queue;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Thread flusher;
+
+    private volatile boolean running;
+
+    private final AtomicLong enqueued = new AtomicLong();
+
+    private final AtomicLong written = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    private final AtomicLong overflowCounter = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        queue = new LinkedBlockingDeque<>(queueCapacity);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        running = true;
+        flusher = new Thread(this::run, "access-log-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Encerra o gravador, persistindo os registros ainda presentes na fila.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        flusher.join(shutdownTimeoutMs);
+        if (flusher.isAlive()) {
+            logger.warn("Gravador de logs de acesso encerrado com {} registros pendentes", queue.size());
+            flusher.interrupt();
+        }
+    }
+
+    /**
+     * Enfileira um log de acesso para gravação em segundo plano.
+     *
+     * @param accessLog Log de acesso
+     */
+    public void submit(AccessLog accessLog) {
+        if (queue.offer(accessLog)) {
+            enqueued.incrementAndGet();
+            return;
+        }
+
+        switch (backpressurePolicy) {
+            case BLOCK -> offerWithTimeout(accessLog);
+            case DROP_OLDEST -> {
+                while (!queue.offer(accessLog)) {
+                    if (queue.pollFirst() != null) {
+                        dropped.incrementAndGet();
+                    }
+                }
+                enqueued.incrementAndGet();
+            }
+            case SAMPLE -> {
+                if (overflowCounter.incrementAndGet() % Math.max(sampleRate, 1) == 0) {
+                    offerWithTimeout(accessLog);
+                } else {
+                    dropped.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private void offerWithTimeout(AccessLog accessLog) {
+        try {
+            if (queue.offer(accessLog, blockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                enqueued.incrementAndGet();
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dropped.incrementAndGet();
+    }
+
+    /**
+     * Laço da thread de gravação: agrupa registros até atingir o tamanho do lote ou o
+     * intervalo de gravação, e esvazia a fila antes de encerrar.
+     */
+    private void run() {
+        List<AccessLog> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AccessLog first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.currentTimeMillis() + flushIntervalMs;
+                while (batch.size() < batchSize) {
+                    long remaining = running ? deadline - System.currentTimeMillis() : 0;
+                    AccessLog next = remaining > 0
+                            ? queue.poll(remaining, TimeUnit.MILLISECONDS)
+                            : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<AccessLog> batch) {
+        try {
+            saveWithRollups(batch);
+            written.addAndGet(batch.size());
+        } catch (Exception e) {
+            logger.warn("Erro ao gravar lote de {} logs de acesso; gravando um a um", batch.size(), e);
+            flushIndividually(batch);
+        }
+    }
+
+    /**
+     * Grava os registros de um lote que falhou, cada um em sua própria transação,
+     * para que um registro inválido não descarte os demais.
+     */
+    private void flushIndividually(List<AccessLog> batch) {
+        for (AccessLog accessLog : batch) {
+            try {
+                saveWithRollups(List.of(accessLog));
+                written.incrementAndGet();
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                logger.error("Erro ao gravar log de acesso: {}", accessLog, e);
+            }
+        }
+    }
+
+    /**
+     * Grava os registros e os soma às contagens pré-agregadas do dashboard na mesma transação,
+     * para que as contagens nunca divirjam da tabela de logs. Um conflito com outra instância que
+     * tenha criado a mesma linha de contagem simultaneamente desfaz a transação, que é repetida uma vez.
+     */
+    private void saveWithRollups(List<AccessLog> logs) {
+        try {
+            saveInTransaction(logs);
+        } catch (DataIntegrityViolationException e) {
+            saveInTransaction(logs);
+        }
+    }
+
+    private void saveInTransaction(List<AccessLog> logs) {
+        // IDs gerados em uma tentativa desfeita não existem no banco
+        logs.forEach(accessLog -> accessLog.setId(null));
+        // Aguarda a reconstrução dos intervalos recentes, se houver uma em andamento
+        Lock lock = accessLogRollupService.incrementLock();
+        lock.lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                accessLogRepository.saveAll(logs);
+                accessLogRollupService.apply(logs);
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Obtém as estatísticas do gravador.
+     *
+     * @return Estatísticas
+     */
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "queueDepth", queue.size(),
+                "queueCapacity", queueCapacity,
+                "backpressurePolicy", backpressurePolicy.name(),
+                "enqueued", enqueued.get(),
+                "written", written.get(),
+                "dropped", dropped.get(),
+                "failed", failed.get());
+    }
+}
@@ -1,23 +1,32 @@
 package com.sparkwave.login.controller;
 
 import com.sparkwave.login.model.*;
+import com.sparkwave.login.security.AuthTokenFilter;
 import com.sparkwave.login.security.JwtUtils;
+import com.sparkwave.login.security.LoginAttemptLimiter;
+import com.sparkwave.login.security.PasswordHashingBusyException;
+import com.sparkwave.login.security.SparkwaveUserDetails;
+import com.sparkwave.login.security.TokenRevocationIndex;
+import com.sparkwave.login.security.UserDetailsServiceImpl;
 import com.sparkwave.login.service.AccessLogService;
+import com.sparkwave.login.service.RefreshTokenService;
 import com.sparkwave.login.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 /**
  * Controlador para autenticação e registro de usuários.
@@ -35,9 +44,21 @@ public class AuthController {
     @Autowired
     private JwtUtils jwtUtils;
     
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+    
     @Autowired
     private AccessLogService accessLogService;
     
+    @Autowired
+    private LoginAttemptLimiter loginAttemptLimiter;
+    
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    
+    @Autowired
+    private TokenRevocationIndex tokenRevocationIndex;
+    
     @Value("${sparkwave.app.redirect.url}")
     private String redirectUrl;
 
@@ -46,38 +67,59 @@ public class AuthController {
      *
      * @param loginRequest Requisição de login
      * @param request Requisição HTTP
-     * @return Resposta com token JWT
+     * @return Resposta com token JWT de curta duração e refresh token
      */
     @PostMapping("/signin")
     public ResponseEntity<?> authenticateUser(@RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        // Rejeitar tentativas acima do limite antes de verificar a senha
+        // O endereço remoto já é o do cliente quando o proxy é confiável (server.forward-headers-strategy);
+        // o cabeçalho X-Forwarded-For enviado diretamente pelo cliente é ignorado
+        String clientIp = request.getRemoteAddr();
+        LoginAttemptLimiter.Decision decision = loginAttemptLimiter.tryAttempt(loginRequest.getUsername(), clientIp);
+        if (decision != LoginAttemptLimiter.Decision.ALLOWED) {
+            long retryAfter = loginAttemptLimiter.getRetryAfterSeconds(decision, loginRequest.getUsername(), clientIp);
+            return ResponseEntity
+                    .status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                    .body(new MessageResponse("Erro: Muitas tentativas de login. Tente novamente mais tarde."));
+        }
+        
         try {
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
-            String jwt = jwtUtils.generateJwtToken(authentication);
-            
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            List<String> roles = userDetails.getAuthorities().stream()
-                    .map(item -> item.getAuthority().replace("ROLE_", ""))
-                    .collect(Collectors.toList());
+            loginAttemptLimiter.onSuccess(loginRequest.getUsername());
             
-            User user = userService.findByUsername(userDetails.getUsername()).orElseThrow();
+            // O principal já carrega ID, email e perfis; nenhuma nova consulta ao usuário é necessária
+            SparkwaveUserDetails userDetails = (SparkwaveUserDetails) authentication.getPrincipal();
+            String jwt = jwtUtils.generateJwtToken(authentication);
+            String refreshToken = refreshTokenService.issue(userDetails.getId());
             
             // Registrar o acesso bem-sucedido
-            accessLogService.logAccess(user, "LOGIN", "SUCCESS", request);
+            accessLogService.logAccess(userDetails.getId(), "LOGIN", "SUCCESS", request);
             
             return ResponseEntity.ok(new JwtResponse(jwt, 
-                                                     user.getId(), 
-                                                     user.getUsername(), 
-                                                     user.getEmail(), 
-                                                     roles,
+                                                     refreshToken,
+                                                     userDetails.getId(), 
+                                                     userDetails.getUsername(), 
+                                                     userDetails.getEmail(), 
+                                                     userDetails.getRoles(),
                                                      redirectUrl));
+        } catch (PasswordHashingBusyException e) {
+            // Verificação de senha recusada por sobrecarga; não conta como credencial inválida
+            return ResponseEntity
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new MessageResponse("Erro: Serviço de autenticação sobrecarregado. Tente novamente em instantes."));
         } catch (AuthenticationException e) {
-            // Tentar encontrar o usuário para registrar a tentativa de login
-            userService.findByUsername(loginRequest.getUsername()).ifPresent(user -> {
-                accessLogService.logAccess(user, "LOGIN", "FAILED", request);
-            });
+            // Registrar a tentativa com o usuário já carregado (e mantido em cache) pela autenticação
+            try {
+                SparkwaveUserDetails userDetails = userDetailsService.loadUserByUsername(loginRequest.getUsername());
+                accessLogService.logAccess(userDetails.getId(), "LOGIN", "FAILED", request);
+            } catch (UsernameNotFoundException ignored) {
+                // Usuário inexistente: não há a quem associar o log
+            }
             
             return ResponseEntity
                     .badRequest()
@@ -85,6 +127,48 @@ public class AuthController {
         }
     }
 
+    /**
+     * Endpoint para renovação do token de acesso. O refresh token apresentado é revogado
+     * e substituído por um novo; os dados do usuário são relidos do banco.
+     *
+     * @param refreshRequest Requisição com o refresh token
+     * @return Resposta com novo token JWT e novo refresh token
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@RequestBody TokenRefreshRequest refreshRequest) {
+        Optional<RefreshTokenService.Rotation> rotation = refreshTokenService.rotate(refreshRequest.getRefreshToken());
+        if (rotation.isEmpty()) {
+            return ResponseEntity
+                    .status(HttpStatus.UNAUTHORIZED)
+                    .body(new MessageResponse("Erro: Sessão expirada. Faça login novamente."));
+        }
+        
+        SparkwaveUserDetails userDetails;
+        try {
+            userDetails = userDetailsService.loadUserById(rotation.get().userId());
+        } catch (UsernameNotFoundException e) {
+            userDetails = null;
+        }
+        if (userDetails == null || !userDetails.isEnabled()) {
+            refreshTokenService.revoke(rotation.get().refreshToken());
+            return ResponseEntity
+                    .status(HttpStatus.UNAUTHORIZED)
+                    .body(new MessageResponse("Erro: Sessão expirada. Faça login novamente."));
+        }
+        
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities());
+        String jwt = jwtUtils.generateJwtToken(authentication);
+        
+        return ResponseEntity.ok(new JwtResponse(jwt, 
+                                                 rotation.get().refreshToken(),
+                                                 userDetails.getId(), 
+                                                 userDetails.getUsername(), 
+                                                 userDetails.getEmail(), 
+                                                 userDetails.getRoles(),
+                                                 redirectUrl));
+    }
+
     /**
      * Endpoint para registro de usuários.
      *
@@ -115,22 +199,30 @@ public class AuthController {
     }
     
     /**
-     * Endpoint para logout de usuários.
+     * Endpoint para logout de usuários. O token de acesso usado na requisição é revogado
+     * imediatamente, assim como o refresh token informado.
      *
+     * @param refreshRequest Requisição com o refresh token (opcional)
      * @param request Requisição HTTP
      * @return Mensagem de resposta
      */
     @PostMapping("/signout")
-    public ResponseEntity<?> logoutUser(HttpServletRequest request) {
+    public ResponseEntity<?> logoutUser(@RequestBody(required = false) TokenRefreshRequest refreshRequest,
+                                        HttpServletRequest request) {
+        if (refreshRequest != null) {
+            refreshTokenService.revoke(refreshRequest.getRefreshToken());
+        }
+        if (request.getAttribute(AuthTokenFilter.CLAIMS_ATTRIBUTE) instanceof Claims claims) {
+            tokenRevocationIndex.revokeToken(claims.getId(), claims.getExpiration());
+        }
+        
         // Obter o usuário autenticado
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.isAuthenticated()) {
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            User user = userService.findByUsername(userDetails.getUsername()).orElse(null);
-            
-            if (user != null) {
+            if (authentication.getPrincipal() instanceof SparkwaveUserDetails userDetails
+                    && userDetails.getId() != null) {
                 // Registrar o logout
-                accessLogService.logAccess(user, "LOGOUT", "SUCCESS", request);
+                accessLogService.logAccess(userDetails.getId(), "LOGOUT", "SUCCESS", request);
             }
             
             // Limpar o contexto de segurança
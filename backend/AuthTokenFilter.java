@@ -1,5 +1,6 @@
 package com.sparkwave.login.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,6 +9,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -16,36 +18,58 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Filtro para interceptar requisições e validar tokens JWT.
  */
 public class AuthTokenFilter extends OncePerRequestFilter {
+    /**
+     * Atributo da requisição com as claims do token autenticado, usado pelo logout para revogá-lo.
+     */
+    public static final String CLAIMS_ATTRIBUTE = AuthTokenFilter.class.getName() + ".claims";
+
     @Autowired
     private JwtUtils jwtUtils;
 
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private TokenRevocationIndex tokenRevocationIndex;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     /**
      * Filtra cada requisição para validar o token JWT e autenticar o usuário.
+     * Tokens presentes no índice de revogação são ignorados.
      */
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            Claims claims = jwt != null ? resolveClaims(jwt) : null;
+            if (claims != null && !tokenRevocationIndex.isRevoked(claims)) {
+                UserDetails userDetails = resolveUserDetails(claims);
+                if (!userDetails.isEnabled()) {
+                    filterChain.doFilter(request, response);
+                    return;
+                }
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                request.setAttribute(CLAIMS_ATTRIBUTE, claims);
             }
         } catch (Exception e) {
             logger.error("Não foi possível autenticar o usuário: {}", e.getMessage());
@@ -54,6 +78,41 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Obtém os dados do usuário a partir das claims do token quando elas carregam os perfis
+     * e a versão do token ainda é atual; caso contrário, consulta o serviço de usuários.
+     */
+    private UserDetails resolveUserDetails(Claims claims) {
+        String username = claims.getSubject();
+        Integer tokenVersion = claims.get(JwtUtils.CLAIM_TOKEN_VERSION, Integer.class);
+        List<?> roles = claims.get(JwtUtils.CLAIM_ROLES, List.class);
+
+        if (jwtUtils.isStatelessClaims() && tokenVersion != null && roles != null
+                && !tokenVersionRegistry.isStale(username, tokenVersion)) {
+            List<SimpleGrantedAuthority> authorities = roles.stream()
+                    .map(role -> new SimpleGrantedAuthority(role.toString()))
+                    .collect(Collectors.toList());
+            Long userId = claims.get(JwtUtils.CLAIM_USER_ID, Long.class);
+            return new SparkwaveUserDetails(userId, username, null, "", true, tokenVersion, authorities);
+        }
+
+        return userDetailsService.loadUserByUsername(username);
+    }
+
+    /**
+     * Obtém as claims do token, verificando a assinatura apenas se o token não estiver no cache.
+     */
+    private Claims resolveClaims(String jwt) {
+        Claims claims = verifiedTokenCache.get(jwt);
+        if (claims == null) {
+            claims = jwtUtils.parseValidClaims(jwt);
+            if (claims != null) {
+                verifiedTokenCache.put(jwt, claims);
+            }
+        }
+        return claims;
+    }
+
     /**
      * Extrai o token JWT do cabeçalho Authorization.
      */
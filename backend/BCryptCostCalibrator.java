@@ -0,0 +1,51 @@
+package com.sparkwave.login.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Calibração do custo do BCrypt no hardware em que a aplicação está rodando.
+ * Mede o tempo de um hash com o custo mínimo e escolhe o maior custo cujo tempo estimado
+ * (o dobro a cada incremento) não ultrapassa o alvo.
+ */
+public final class BCryptCostCalibrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(BCryptCostCalibrator.class);
+
+    private static final int SAMPLES = 3;
+
+    private BCryptCostCalibrator() {
+    }
+
+    /**
+     * Calibra o custo do BCrypt.
+     *
+     * @param targetMs Tempo alvo por hash, em milissegundos
+     * @param minStrength Custo mínimo
+     * @param maxStrength Custo máximo
+     * @return Custo escolhido
+     */
+    public static int calibrate(long targetMs, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minStrength);
+        encoder.encode("calibration-warmup");
+
+        long bestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration-sample");
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+
+        int strength = minStrength;
+        double estimatedMs = bestNanos / 1_000_000.0;
+        while (strength < maxStrength && estimatedMs * 2 <= targetMs) {
+            strength++;
+            estimatedMs *= 2;
+        }
+
+        logger.info("Custo do BCrypt calibrado: {} (~{} ms por hash, alvo {} ms)",
+                strength, Math.round(estimatedMs), targetMs);
+        return strength;
+    }
+}
@@ -0,0 +1,51 @@
+package com.sparkwave.login.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.Future;
+
+/**
+ * Codificador de senhas que executa as operações do codificador delegado no
+ * {@link PasswordHashingExecutor}, falhando imediatamente quando o executor está saturado.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    private final PasswordHashingExecutor executor;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executor.call(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executor.call(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Codifica uma senha como operação de lote, sem falhar quando o executor está saturado.
+     *
+     * @param rawPassword Senha em texto plano
+     * @return Hash futuro da senha
+     * @throws InterruptedException se a thread for interrompida enquanto aguarda
+     */
+    public Future<String> encodeInBackground(CharSequence rawPassword) throws InterruptedException {
+        return executor.submitBackground(() -> delegate.encode(rawPassword));
+    }
+
+    /**
+     * Indica se o hash deve ser regravado. A regravação é opcional e só é solicitada quando o
+     * executor tem capacidade livre; caso contrário, fica para um próximo login.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword) && executor.hasIdleCapacity();
+    }
+}
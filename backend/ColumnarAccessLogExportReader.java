@@ -0,0 +1,167 @@
+package com.sparkwave.login.service;
+
+import com.sparkwave.login.model.AccessLogView;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Leitura do formato colunar gerado por {@link ColumnarAccessLogExportWriter}, um log por vez.
+ * O ID de usuário 0, gravado para logs sem usuário, é lido como nulo.
+ */
+public class ColumnarAccessLogExportReader {
+
+    private static final byte[] MAGIC = {'S', 'W', 'A', 'L'};
+
+    private static final int VERSION = 1;
+
+    private final DataInputStream in;
+
+    private final List<String> usernames = new ArrayList<>();
+
+    private final List<String> ipAddresses = new ArrayList<>();
+
+    private final List<String> userAgents = new ArrayList<>();
+
+    private final List<String> actions = new ArrayList<>();
+
+    private final List<String> statuses = new ArrayList<>();
+
+    private AccessLogView[] block = new AccessLogView[0];
+
+    private int position;
+
+    private boolean finished;
+
+    private long previousId;
+
+    private long previousUserId;
+
+    private long previousTime;
+
+    public ColumnarAccessLogExportReader(InputStream inputStream) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(inputStream, 64 * 1024));
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Arquivo não está no formato colunar de logs de acesso");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Versão do formato colunar não suportada: " + version);
+        }
+    }
+
+    /**
+     * Lê o próximo log de acesso.
+     *
+     * @return Log de acesso, ou null ao final do arquivo
+     * @throws IOException Em caso de falha de leitura ou arquivo truncado
+     */
+    public AccessLogView read() throws IOException {
+        while (position == block.length) {
+            if (finished) {
+                return null;
+            }
+            readBlock();
+        }
+        return block[position++];
+    }
+
+    private void readBlock() throws IOException {
+        int size = (int) readVarint();
+        block = new AccessLogView[size];
+        position = 0;
+        if (size == 0) {
+            finished = true;
+            return;
+        }
+
+        for (int i = 0; i < size; i++) {
+            block[i] = new AccessLogView();
+            previousId += unzigzag(readVarint());
+            block[i].setId(previousId);
+        }
+        for (AccessLogView log : block) {
+            previousUserId += unzigzag(readVarint());
+            log.setUserId(previousUserId != 0 ? previousUserId : null);
+        }
+        for (AccessLogView log : block) {
+            previousTime += unzigzag(readVarint());
+            log.setAccessTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(previousTime), ZoneOffset.UTC));
+        }
+
+        String[] values = readTextColumn(usernames, size);
+        for (int i = 0; i < size; i++) {
+            block[i].setUsername(values[i]);
+        }
+        values = readTextColumn(ipAddresses, size);
+        for (int i = 0; i < size; i++) {
+            block[i].setIpAddress(values[i]);
+        }
+        values = readTextColumn(userAgents, size);
+        for (int i = 0; i < size; i++) {
+            block[i].setUserAgent(values[i]);
+        }
+        values = readTextColumn(actions, size);
+        for (int i = 0; i < size; i++) {
+            block[i].setAction(values[i]);
+        }
+        values = readTextColumn(statuses, size);
+        for (int i = 0; i < size; i++) {
+            block[i].setStatus(values[i]);
+        }
+    }
+
+    private String[] readTextColumn(List<String> dictionary, int size) throws IOException {
+        if (in.readUnsignedByte() == 1) {
+            dictionary.clear();
+        }
+
+        long newEntries = readVarint();
+        for (long i = 0; i < newEntries; i++) {
+            byte[] bytes = new byte[(int) readVarint()];
+            in.readFully(bytes);
+            dictionary.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+
+        String[] values = new String[size];
+        for (int i = 0; i < size; i++) {
+            int code = (int) readVarint();
+            if (code > dictionary.size()) {
+                throw new IOException("Código de dicionário inválido: " + code);
+            }
+            values[i] = code == 0 ? null : dictionary.get(code - 1);
+        }
+        return values;
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Arquivo colunar truncado");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Varint inválido");
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,185 @@
+package com.sparkwave.login.service;
+
+import com.sparkwave.login.model.AccessLogView;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exportação do histórico de acessos em um formato binário colunar compacto.
+ *
+ * <p>Estrutura do arquivo (inteiros como varint LEB128; deltas com codificação zigzag):
+ * <ul>
+ *   <li>Cabeçalho: bytes {@code SWAL} seguidos da versão (1 byte).</li>
+ *   <li>Blocos de até {@value #BLOCK_SIZE} linhas, cada um iniciado pela quantidade de linhas.
+ *       Um bloco com zero linhas marca o fim do arquivo.</li>
+ *   <li>Em cada bloco, as colunas em sequência: {@code id} (delta), {@code userId} (delta),
+ *       {@code accessTime} (delta em milissegundos, data/hora local lida como UTC) e as colunas
+ *       de texto {@code username}, {@code ipAddress}, {@code userAgent}, {@code action} e {@code status}.</li>
+ *   <li>Cada coluna de texto usa um dicionário que cresce ao longo do arquivo: um byte indicando se o
+ *       dicionário foi reiniciado, a quantidade de novas entradas com seus bytes UTF-8 (tamanho + dados) e,
+ *       por linha, o código da entrada (0 para nulo, índice + 1 caso contrário).</li>
+ * </ul>
+ */
+public class ColumnarAccessLogExportWriter implements AccessLogExportWriter {
+
+    static final int BLOCK_SIZE = 4096;
+
+    private static final byte[] MAGIC = {'S', 'W', 'A', 'L'};
+
+    private static final int VERSION = 1;
+
+    private static final int MAX_DICTIONARY_SIZE = 65536;
+
+    private final DataOutputStream out;
+
+    private final List<AccessLogView> block = new ArrayList<>(BLOCK_SIZE);
+
+    private final Dictionary usernames = new Dictionary();
+
+    private final Dictionary ipAddresses = new Dictionary();
+
+    private final Dictionary userAgents = new Dictionary();
+
+    private final Dictionary actions = new Dictionary();
+
+    private final Dictionary statuses = new Dictionary();
+
+    private long previousId;
+
+    private long previousUserId;
+
+    private long previousTime;
+
+    public ColumnarAccessLogExportWriter(OutputStream outputStream) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(outputStream, 64 * 1024));
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+    }
+
+    @Override
+    public void write(AccessLogView log) throws IOException {
+        block.add(log);
+        if (block.size() == BLOCK_SIZE) {
+            writeBlock();
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (!block.isEmpty()) {
+            writeBlock();
+        }
+        writeVarint(0);
+        out.flush();
+    }
+
+    private void writeBlock() throws IOException {
+        writeVarint(block.size());
+
+        for (AccessLogView log : block) {
+            writeVarint(zigzag(log.getId() - previousId));
+            previousId = log.getId();
+        }
+        for (AccessLogView log : block) {
+            long userId = log.getUserId() != null ? log.getUserId() : 0;
+            writeVarint(zigzag(userId - previousUserId));
+            previousUserId = userId;
+        }
+        for (AccessLogView log : block) {
+            long time = log.getAccessTime().toInstant(ZoneOffset.UTC).toEpochMilli();
+            writeVarint(zigzag(time - previousTime));
+            previousTime = time;
+        }
+
+        writeTextColumn(usernames, block.stream().map(AccessLogView::getUsername).toList());
+        writeTextColumn(ipAddresses, block.stream().map(AccessLogView::getIpAddress).toList());
+        writeTextColumn(userAgents, block.stream().map(AccessLogView::getUserAgent).toList());
+        writeTextColumn(actions, block.stream().map(AccessLogView::getAction).toList());
+        writeTextColumn(statuses, block.stream().map(AccessLogView::getStatus).toList());
+
+        block.clear();
+    }
+
+    private void writeTextColumn(Dictionary dictionary, List<String> values) throws IOException {
+        boolean reset = dictionary.size() + values.size() > MAX_DICTIONARY_SIZE;
+        if (reset) {
+            dictionary.clear();
+        }
+        out.writeByte(reset ? 1 : 0);
+
+        int firstNew = dictionary.size();
+        int[] codes = new int[values.size()];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = dictionary.codeOf(values.get(i));
+        }
+
+        List<String> newEntries = dictionary.entriesFrom(firstNew);
+        writeVarint(newEntries.size());
+        for (String entry : newEntries) {
+            byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length);
+            out.write(bytes);
+        }
+
+        for (int code : codes) {
+            writeVarint(code);
+        }
+    }
+
+    private void writeVarint(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Dicionário de valores de uma coluna de texto.
+     */
+    private static class Dictionary {
+
+        private final Map<String, Integer> codes = new HashMap<>();
+
+        private final List<String> entries = new ArrayList<>();
+
+        int codeOf(String value) {
+            if (value == null) {
+                return 0;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                entries.add(value);
+                code = entries.size();
+                codes.put(value, code);
+            }
+            return code;
+        }
+
+        List<String> entriesFrom(int index) {
+            return entries.subList(index, entries.size());
+        }
+
+        int size() {
+            return entries.size();
+        }
+
+        void clear() {
+            codes.clear();
+            entries.clear();
+        }
+    }
+}
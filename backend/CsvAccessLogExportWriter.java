@@ -0,0 +1,39 @@
+package com.sparkwave.login.service;
+
+import com.sparkwave.login.model.AccessLogView;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Exportação do histórico de acessos em CSV.
+ */
+public class CsvAccessLogExportWriter implements AccessLogExportWriter {
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final CsvWriter csv;
+
+    public CsvAccessLogExportWriter(OutputStream outputStream) throws IOException {
+        this.csv = new CsvWriter(outputStream);
+        csv.writeRow("ID", "Usuário", "Data/Hora", "Endereço IP", "User Agent", "Ação", "Status");
+    }
+
+    @Override
+    public void write(AccessLogView log) throws IOException {
+        csv.writeRow(
+                log.getId(),
+                log.getUsername(),
+                log.getAccessTime().format(DATE_TIME_FORMATTER),
+                log.getIpAddress(),
+                log.getUserAgent(),
+                log.getAction(),
+                log.getStatus());
+    }
+
+    @Override
+    public void finish() throws IOException {
+        csv.flush();
+    }
+}
@@ -0,0 +1,72 @@
+package com.sparkwave.login.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitor de linhas CSV em fluxo, com suporte a campos entre aspas (RFC 4180).
+ */
+public class CsvReader {
+
+    private final Reader reader;
+
+    public CsvReader(InputStream inputStream) {
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Lê a próxima linha.
+     *
+     * @return Campos da linha, ou null ao final do fluxo
+     * @throws IOException Em caso de falha de leitura
+     * @throws IllegalArgumentException se houver aspas sem fechamento
+     */
+    public List<String> readRow() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean empty = true;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            empty = false;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("CSV inválido: aspas sem fechamento");
+        }
+        if (empty) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,67 @@
+package com.sparkwave.login.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Escritor de linhas CSV em fluxo, com escape dos campos.
+ */
+public class CsvWriter {
+
+    private final Writer writer;
+
+    public CsvWriter(OutputStream outputStream) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Escreve uma linha com os campos informados.
+     *
+     * @param fields Campos da linha
+     * @throws IOException Em caso de falha de escrita
+     */
+    public void writeRow(Object... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCsvField(fields[i] != null ? fields[i].toString() : null));
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * Descarrega os dados pendentes no fluxo de saída.
+     *
+     * @throws IOException Em caso de falha de escrita
+     */
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * Escapa campos para o formato CSV.
+     *
+     * @param field Campo a ser escapado
+     * @return Campo escapado
+     */
+    private String escapeCsvField(String field) {
+        if (field == null) {
+            return "";
+        }
+        
+        // Se o campo contém vírgula, aspas ou quebra de linha, envolve em aspas
+        if (field.contains(",") || field.contains("\"") || field.contains("\n")) {
+            // Substituir aspas por aspas duplas
+            field = field.replace("\"", "\"\"");
+            // Envolver em aspas
+            return "\"" + field + "\"";
+        }
+        
+        return field;
+    }
+}
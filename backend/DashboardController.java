@@ -1,22 +1,28 @@
 package com.sparkwave.login.controller;
 
-import com.sparkwave.login.model.AccessLog;
-import com.sparkwave.login.model.User;
+import com.sparkwave.login.model.MessageResponse;
+import com.sparkwave.login.repository.AccessLogHourlyRollupRepository;
 import com.sparkwave.login.repository.AccessLogRepository;
+import com.sparkwave.login.repository.AccessLogUserDailyRollupRepository;
 import com.sparkwave.login.repository.UserRepository;
+import com.sparkwave.login.service.AccessLogRollupService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Controlador para o dashboard administrativo.
+ * As contagens de acesso vêm das tabelas pré-agregadas mantidas pelo {@link AccessLogRollupService},
+ * com granularidade de uma hora (geral) e de um dia (por usuário).
  */
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -29,6 +35,15 @@ public class DashboardController {
     
     @Autowired
     private AccessLogRepository accessLogRepository;
+    
+    @Autowired
+    private AccessLogHourlyRollupRepository hourlyRollupRepository;
+    
+    @Autowired
+    private AccessLogUserDailyRollupRepository userDailyRollupRepository;
+    
+    @Autowired
+    private AccessLogRollupService accessLogRollupService;
 
     /**
      * Obtém estatísticas gerais para o dashboard.
@@ -40,36 +55,28 @@ public class DashboardController {
         Map<String, Object> stats = new HashMap<>();
         
         // Total de usuários
-        long totalUsers = userRepository.count();
-        stats.put("totalUsers", totalUsers);
+        stats.put("totalUsers", userRepository.count());
         
         // Usuários ativos
-        List<User> users = userRepository.findAll();
-        long activeUsers = users.stream().filter(User::isActive).count();
-        stats.put("activeUsers", activeUsers);
+        stats.put("activeUsers", userRepository.countByActiveTrue());
         
         // Usuários por perfil
-        Map<String, Long> usersByRole = users.stream()
-                .flatMap(user -> user.getRoles().stream())
-                .collect(Collectors.groupingBy(role -> role, Collectors.counting()));
+        Map<String, Long> usersByRole = new HashMap<>();
+        for (Object[] row : userRepository.countUsersByRole()) {
+            usersByRole.put((String) row[0], (Long) row[1]);
+        }
         stats.put("usersByRole", usersByRole);
         
         // Acessos recentes
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime lastWeek = now.minusWeeks(1);
+        LocalDateTime lastWeek = LocalDateTime.now().minusWeeks(1).truncatedTo(ChronoUnit.HOURS);
         
-        List<AccessLog> recentLogs = accessLogRepository.findByAccessTimeBetween(lastWeek, now);
-        stats.put("totalLogins", recentLogs.stream().filter(log -> "LOGIN".equals(log.getAction())).count());
-        stats.put("successfulLogins", recentLogs.stream().filter(log -> "LOGIN".equals(log.getAction()) && "SUCCESS".equals(log.getStatus())).count());
-        stats.put("failedLogins", recentLogs.stream().filter(log -> "LOGIN".equals(log.getAction()) && "FAILED".equals(log.getStatus())).count());
+        putLoginCounts(stats, hourlyRollupRepository.sumByActionAndStatus(lastWeek));
         
         // Acessos por dia
-        Map<String, Long> loginsByDay = recentLogs.stream()
-                .filter(log -> "LOGIN".equals(log.getAction()) && "SUCCESS".equals(log.getStatus()))
-                .collect(Collectors.groupingBy(
-                        log -> log.getAccessTime().toLocalDate().toString(),
-                        Collectors.counting()
-                ));
+        Map<String, Long> loginsByDay = new HashMap<>();
+        for (Object[] row : hourlyRollupRepository.sumByDay("LOGIN", "SUCCESS", lastWeek)) {
+            loginsByDay.put(row[0].toString(), (Long) row[1]);
+        }
         stats.put("loginsByDay", loginsByDay);
         
         return ResponseEntity.ok(stats);
@@ -95,18 +102,15 @@ public class DashboardController {
                     stats.put("roles", user.getRoles());
                     
                     // Acessos recentes
-                    LocalDateTime now = LocalDateTime.now();
-                    LocalDateTime lastMonth = now.minusMonths(1);
+                    LocalDateTime lastMonth = LocalDateTime.now().minusMonths(1);
                     
-                    List<AccessLog> userLogs = accessLogRepository.findByUserAndAccessTimeBetween(user, lastMonth, now);
-                    stats.put("totalLogins", userLogs.stream().filter(log -> "LOGIN".equals(log.getAction())).count());
-                    stats.put("successfulLogins", userLogs.stream().filter(log -> "LOGIN".equals(log.getAction()) && "SUCCESS".equals(log.getStatus())).count());
-                    stats.put("failedLogins", userLogs.stream().filter(log -> "LOGIN".equals(log.getAction()) && "FAILED".equals(log.getStatus())).count());
+                    putLoginCounts(stats, userDailyRollupRepository.sumByActionAndStatus(userId, lastMonth.toLocalDate()));
                     
                     // Último acesso
-                    userLogs.stream()
-                            .filter(log -> "LOGIN".equals(log.getAction()) && "SUCCESS".equals(log.getStatus()))
-                            .max((a, b) -> a.getAccessTime().compareTo(b.getAccessTime()))
+                    accessLogRepository.findLatestByUserAndActionAndStatus(userId, "LOGIN", "SUCCESS", PageRequest.of(0, 1))
+                            .stream()
+                            .filter(log -> !log.getAccessTime().isBefore(lastMonth))
+                            .findFirst()
                             .ifPresent(log -> {
                                 stats.put("lastLogin", log.getAccessTime());
                                 stats.put("lastIp", log.getIpAddress());
@@ -117,5 +121,51 @@ public class DashboardController {
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
-}
 
+    /**
+     * Inicia a reconstrução das contagens pré-agregadas a partir do histórico de acessos,
+     * executada em segundo plano.
+     *
+     * @return Mensagem de resposta
+     */
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<MessageResponse> rebuildRollups() {
+        if (!accessLogRollupService.startRebuild()) {
+            return ResponseEntity
+                    .status(HttpStatus.CONFLICT)
+                    .body(new MessageResponse("Erro: Reconstrução das contagens já em andamento"));
+        }
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .body(new MessageResponse("Reconstrução das contagens iniciada"));
+    }
+
+    /**
+     * Preenche os totais de login a partir das contagens agrupadas por ação e status.
+     *
+     * @param stats Estatísticas
+     * @param rows Linhas com [ação, status, quantidade]
+     */
+    private void putLoginCounts(Map<String, Object> stats, List<Object[]> rows) {
+        long totalLogins = 0;
+        long successfulLogins = 0;
+        long failedLogins = 0;
+        
+        for (Object[] row : rows) {
+            if (!"LOGIN".equals(row[0])) {
+                continue;
+            }
+            long count = (Long) row[2];
+            totalLogins += count;
+            if ("SUCCESS".equals(row[1])) {
+                successfulLogins += count;
+            } else if ("FAILED".equals(row[1])) {
+                failedLogins += count;
+            }
+        }
+        
+        stats.put("totalLogins", totalLogins);
+        stats.put("successfulLogins", successfulLogins);
+        stats.put("failedLogins", failedLogins);
+    }
+}
@@ -0,0 +1,64 @@
+package com.sparkwave.login.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidade que representa um e-mail pendente de envio (outbox transacional).
+ * O registro é gravado na mesma transação da operação que gerou a notificação
+ * e removido pelo relay após a entrega. O corpo é gravado cifrado e apagado quando
+ * o envio é abandonado; registros abandonados são removidos após o período de retenção.
+ */
+@Entity
+@Table(name = "email_outbox",
+       indexes = {
+           @Index(name = "idx_email_outbox_status_id", columnList = "status, id")
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailOutbox {
+
+    /**
+     * Situação do e-mail na outbox.
+     */
+    public enum Status {
+        /** Aguardando o relay. */
+        PENDING,
+        /** Entregue à fila de envio, aguardando confirmação. */
+        QUEUED,
+        /** Envio abandonado após esgotar as tentativas; o corpo já foi apagado. */
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_outbox_seq")
+    @SequenceGenerator(name = "email_outbox_seq", sequenceName = "email_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String body;
+
+    @Column(nullable = false)
+    private boolean html;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.PENDING;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+}
@@ -0,0 +1,101 @@
+package com.sparkwave.login.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Cifra o corpo dos e-mails gravados na outbox com AES-GCM, para que credenciais enviadas
+ * por e-mail (senhas de boas-vindas e de redefinição) não fiquem legíveis no banco.
+ * Sem uma chave configurada, a chave é derivada do segredo JWT.
+ */
+@Component
+public class EmailOutboxCipher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxCipher.class);
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+    private static final int IV_LENGTH = 12;
+
+    private static final int TAG_LENGTH_BITS = 128;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Value("${sparkwave.app.mail.outbox.encryption-key:}")
+    private String encryptionKey;
+
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    private SecretKeySpec key;
+
+    @PostConstruct
+    public void init() throws GeneralSecurityException {
+        byte[] keyBytes;
+        if (encryptionKey != null && !encryptionKey.isBlank()) {
+            keyBytes = Base64.getDecoder().decode(encryptionKey.trim());
+            if (keyBytes.length != 16 && keyBytes.length != 24 && keyBytes.length != 32) {
+                throw new IllegalStateException("sparkwave.app.mail.outbox.encryption-key deve ter 16, 24 ou 32 bytes em Base64");
+            }
+        } else {
+            logger.warn("Chave da outbox de e-mails não configurada; usando chave derivada do segredo JWT");
+            keyBytes = MessageDigest.getInstance("SHA-256")
+                    .digest(("email-outbox:" + jwtSecret).getBytes(StandardCharsets.UTF_8));
+        }
+        key = new SecretKeySpec(keyBytes, "AES");
+    }
+
+    /**
+     * Cifra um texto.
+     *
+     * @param plainText Texto
+     * @return IV e texto cifrado, em Base64
+     */
+    public String encrypt(String plainText) {
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            RANDOM.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+            byte[] encrypted = cipher.doFinal(plainText.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(ByteBuffer.allocate(iv.length + encrypted.length)
+                    .put(iv)
+                    .put(encrypted)
+                    .array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Erro ao cifrar o corpo do e-mail", e);
+        }
+    }
+
+    /**
+     * Decifra um texto gerado por {@link #encrypt(String)}.
+     *
+     * @param cipherText IV e texto cifrado, em Base64
+     * @return Texto original
+     * @throws IllegalStateException se o texto não puder ser decifrado com a chave atual
+     */
+    public String decrypt(String cipherText) {
+        try {
+            byte[] data = Base64.getDecoder().decode(cipherText);
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, data, 0, IV_LENGTH));
+            byte[] plain = cipher.doFinal(data, IV_LENGTH, data.length - IV_LENGTH);
+            return new String(plain, StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Erro ao decifrar o corpo do e-mail", e);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.sparkwave.login.service;
+
+import com.sparkwave.login.model.EmailOutbox;
+import com.sparkwave.login.repository.EmailOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Relay da outbox de e-mails. Uma thread em segundo plano lê lotes de e-mails pendentes,
+ * entrega-os ao {@link MailDispatcher} e remove da outbox os que foram enviados.
+ * A thread é acordada após o commit de cada transação que grava na outbox e, na ausência
+ * de avisos, consulta a tabela no intervalo configurado.
+ */
+@Component
+public class EmailOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxRelay.class);
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private MailDispatcher mailDispatcher;
+
+    @Autowired
+    private EmailOutboxCipher emailOutboxCipher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${sparkwave.app.mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${sparkwave.app.mail.outbox.poll-interval-ms:5000}")
+    private long pollIntervalMs;
+
+    @Value("${sparkwave.app.mail.outbox.claim-timeout-ms:600000}")
+    private long claimTimeoutMs;
+
+    @Value("${sparkwave.app.mail.outbox.failed-retention-ms:604800000}")
+    private long failedRetentionMs;
+
+    @Value("${sparkwave.app.mail.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    private final Semaphore wakeups = new Semaphore(0);
+
+    private final Queue<Long> deliveredIds = new ConcurrentLinkedQueue<>();
+
+    private final Queue<Long> failedIds = new ConcurrentLinkedQueue<>();
+
+    private TransactionTemplate transactionTemplate;
+
+    private Thread relay;
+
+    private volatile boolean running;
+
+    private final AtomicLong relayed = new AtomicLong();
+
+    private final AtomicLong delivered = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        running = true;
+        relay = new Thread(this::run, "email-outbox-relay");
+        relay.setDaemon(true);
+        relay.start();
+    }
+
+    /**
+     * Encerra o relay, registrando os resultados de envio já recebidos.
+     * E-mails ainda reservados voltam a ser enviados após o tempo limite de reserva.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        wakeups.release();
+        relay.join(shutdownTimeoutMs);
+        if (relay.isAlive()) {
+            relay.interrupt();
+        }
+    }
+
+    /**
+     * Solicita uma leitura imediata da outbox.
+     */
+    public void wakeUp() {
+        if (wakeups.availablePermits() == 0) {
+            wakeups.release();
+        }
+    }
+
+    /**
+     * Laço da thread do relay: registra os resultados de envio, libera reservas expiradas,
+     * remove os e-mails abandonados após a retenção e entrega lotes à fila de envio enquanto
+     * houver e-mails pendentes.
+     */
+    private void run() {
+        long nextClaimCheck = 0;
+        while (running) {
+            try {
+                wakeups.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                wakeups.drainPermits();
+
+                recordResults();
+                if (System.currentTimeMillis() >= nextClaimCheck) {
+                    releaseExpiredClaims();
+                    purgeFailed();
+                    nextClaimCheck = System.currentTimeMillis() + claimTimeoutMs / 10;
+                }
+                while (running && relayBatch() == batchSize) {
+                    recordResults();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Erro ao processar a outbox de e-mails", e);
+            }
+        }
+        recordResults();
+    }
+
+    /**
+     * Reserva um lote de e-mails pendentes e os entrega à fila de envio.
+     *
+     * @return Quantidade de e-mails entregues
+     */
+    private int relayBatch() {
+        Integer count = transactionTemplate.execute(status -> {
+            List<EmailOutbox> batch = emailOutboxRepository.findBatchForUpdate(
+                    EmailOutbox.Status.PENDING, PageRequest.of(0, batchSize));
+            LocalDateTime now = LocalDateTime.now();
+            int accepted = 0;
+            for (EmailOutbox email : batch) {
+                Long id = email.getId();
+                String body;
+                try {
+                    body = emailOutboxCipher.decrypt(email.getBody());
+                } catch (IllegalStateException e) {
+                    logger.error("E-mail {} da outbox não pode ser decifrado; envio abandonado", id, e);
+                    email.setStatus(EmailOutbox.Status.QUEUED);
+                    email.setClaimedAt(now);
+                    failedIds.add(id);
+                    continue;
+                }
+                MailDispatcher.OutboundMail mail = new MailDispatcher.OutboundMail(
+                        email.getRecipient(), email.getSubject(), body, email.isHtml(),
+                        ok -> (ok ? deliveredIds : failedIds).add(id));
+                if (!mailDispatcher.submit(mail)) {
+                    break;
+                }
+                email.setStatus(EmailOutbox.Status.QUEUED);
+                email.setClaimedAt(now);
+                accepted++;
+            }
+            return accepted;
+        });
+        relayed.addAndGet(count);
+        return count;
+    }
+
+    /**
+     * Remove os e-mails enviados e marca como falhos os abandonados pela fila de envio.
+     */
+    private void recordResults() {
+        List<Long> sent = drain(deliveredIds);
+        List<Long> abandoned = drain(failedIds);
+        if (sent.isEmpty() && abandoned.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!sent.isEmpty()) {
+                    emailOutboxRepository.deleteByIds(sent);
+                }
+                if (!abandoned.isEmpty()) {
+                    emailOutboxRepository.markFailed(abandoned, EmailOutbox.Status.FAILED);
+                }
+            });
+            delivered.addAndGet(sent.size());
+            failed.addAndGet(abandoned.size());
+        } catch (Exception e) {
+            deliveredIds.addAll(sent);
+            failedIds.addAll(abandoned);
+            throw e;
+        }
+    }
+
+    private void releaseExpiredClaims() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(claimTimeoutMs * 1_000_000);
+        Integer released = transactionTemplate.execute(status -> emailOutboxRepository.releaseExpiredClaims(
+                EmailOutbox.Status.QUEUED, EmailOutbox.Status.PENDING, cutoff));
+        if (released != null && released > 0) {
+            logger.warn("{} e-mails sem confirmação de envio devolvidos à outbox", released);
+        }
+    }
+
+    private void purgeFailed() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(failedRetentionMs * 1_000_000);
+        Integer removed = transactionTemplate.execute(status -> emailOutboxRepository.deleteByStatusCreatedBefore(
+                EmailOutbox.Status.FAILED, cutoff));
+        if (removed != null && removed > 0) {
+            logger.info("{} e-mails abandonados removidos da outbox", removed);
+        }
+    }
+
+    private static List<Long> drain(Queue<Long> source) {
+        List<Long> ids = new ArrayList<>();
+        Long id;
+        while ((id = source.poll()) != null) {
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    /**
+     * Obtém as estatísticas do relay.
+     *
+     * @return Estatísticas
+     */
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "pending", emailOutboxRepository.countByStatus(EmailOutbox.Status.PENDING),
+                "failedInOutbox", emailOutboxRepository.countByStatus(EmailOutbox.Status.FAILED),
+                "relayed", relayed.get(),
+                "delivered", delivered.get(),
+                "failed", failed.get());
+    }
+}
@@ -0,0 +1,95 @@
+package com.sparkwave.login.repository;
+
+import com.sparkwave.login.model.EmailOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositório para a outbox de e-mails.
+ */
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Busca e bloqueia um lote de e-mails em uma situação, ignorando linhas já bloqueadas
+     * por outra instância (SKIP LOCKED).
+     *
+     * @param status Situação
+     * @param pageable Tamanho do lote
+     * @return Lista de e-mails
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM EmailOutbox e WHERE e.status = :status ORDER BY e.id")
+    List<EmailOutbox> findBatchForUpdate(@Param("status") EmailOutbox.Status status, Pageable pageable);
+
+    /**
+     * Marca um conjunto de e-mails como abandonados e apaga seus corpos,
+     * que podem conter credenciais.
+     *
+     * @param ids IDs dos e-mails
+     * @param failed Situação de abandono
+     * @return Quantidade de linhas atualizadas
+     */
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = :failed, e.body = '' WHERE e.id IN :ids")
+    int markFailed(@Param("ids") Collection<Long> ids, @Param("failed") EmailOutbox.Status failed);
+
+    /**
+     * Remove os e-mails em uma situação criados antes de um instante.
+     *
+     * @param status Situação
+     * @param cutoff Instante limite
+     * @return Quantidade de linhas removidas
+     */
+    @Modifying
+    @Query("DELETE FROM EmailOutbox e WHERE e.status = :status AND e.createdAt < :cutoff")
+    int deleteByStatusCreatedBefore(@Param("status") EmailOutbox.Status status,
+                                    @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Devolve ao relay os e-mails entregues à fila de envio antes de um instante e nunca confirmados,
+     * por exemplo quando a instância que os reservou foi encerrada.
+     *
+     * @param queued Situação dos e-mails reservados
+     * @param pending Situação de destino
+     * @param cutoff Instante limite da reserva
+     * @return Quantidade de linhas atualizadas
+     */
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = :pending, e.claimedAt = null " +
+            "WHERE e.status = :queued AND e.claimedAt < :cutoff")
+    int releaseExpiredClaims(@Param("queued") EmailOutbox.Status queued,
+                             @Param("pending") EmailOutbox.Status pending,
+                             @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Remove um conjunto de e-mails.
+     *
+     * @param ids IDs dos e-mails
+     * @return Quantidade de linhas removidas
+     */
+    @Modifying
+    @Query("DELETE FROM EmailOutbox e WHERE e.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Conta os e-mails em uma situação.
+     *
+     * @param status Situação
+     * @return Quantidade de e-mails
+     */
+    long countByStatus(EmailOutbox.Status status);
+}
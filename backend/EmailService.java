@@ -1,38 +1,102 @@
 package com.sparkwave.login.service;
 
+import com.sparkwave.login.model.EmailOutbox;
 import com.sparkwave.login.model.User;
+import com.sparkwave.login.repository.EmailOutboxRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Serviço para envio de notificações por e-mail.
+ * As mensagens são montadas aqui e gravadas na outbox, com o corpo cifrado, na transação de quem
+ * as solicitou; o {@link EmailOutboxRelay} as envia após o commit.
  */
 @Service
 public class EmailService {
     
     private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
     
+    private static final String WELCOME_SUBJECT = "Bem-vindo à SparkWave Consultoria Empresarial";
+    
+    private static final String PASSWORD_RESET_SUBJECT = "Redefinição de Senha - SparkWave Consultoria Empresarial";
+    
+    private static final String ACCOUNT_STATUS_SUBJECT = "Status da Conta - SparkWave Consultoria Empresarial";
+    
+    private static final MailTemplate WELCOME_WITH_PASSWORD = MailTemplate.compile(
+            "Olá {fullName},\n\n" +
+            "Sua conta foi criada na plataforma da SparkWave Consultoria Empresarial.\n\n" +
+            "Suas credenciais de acesso são:\n" +
+            "Usuário: {username}\n" +
+            "Senha: {password}\n\n" +
+            "Recomendamos que altere sua senha após o primeiro acesso.\n\n" +
+            "Atenciosamente,\n" +
+            "Equipe SparkWave");
+    
+    private static final MailTemplate WELCOME = MailTemplate.compile(
+            "Olá {fullName},\n\n" +
+            "Sua conta foi criada com sucesso na plataforma da SparkWave Consultoria Empresarial.\n\n" +
+            "Você já pode acessar nossos serviços utilizando seu nome de usuário: {username}\n\n" +
+            "Atenciosamente,\n" +
+            "Equipe SparkWave");
+    
+    private static final MailTemplate PASSWORD_RESET = MailTemplate.compile(
+            "Olá {fullName},\n\n" +
+            "Sua senha foi redefinida na plataforma da SparkWave Consultoria Empresarial.\n\n" +
+            "Sua nova senha é: {password}\n\n" +
+            "Recomendamos que altere esta senha após o próximo acesso.\n\n" +
+            "Atenciosamente,\n" +
+            "Equipe SparkWave");
+    
+    private static final MailTemplate ACCOUNT_ACTIVATED = MailTemplate.compile(
+            "Olá {fullName},\n\n" +
+            "Informamos que sua conta na plataforma da SparkWave Consultoria Empresarial foi ativada.\n\n" +
+            "Você já pode acessar nossos serviços normalmente.\n\n" +
+            "Atenciosamente,\n" +
+            "Equipe SparkWave");
+    
+    private static final MailTemplate ACCOUNT_DEACTIVATED = MailTemplate.compile(
+            "Olá {fullName},\n\n" +
+            "Informamos que sua conta na plataforma da SparkWave Consultoria Empresarial foi desativada.\n\n" +
+            "Caso tenha dúvidas, entre em contato com nosso suporte.\n\n" +
+            "Atenciosamente,\n" +
+            "Equipe SparkWave");
+    
+    /**
+     * Destinatário de um envio em massa.
+     *
+     * @param email Endereço de e-mail
+     * @param variables Variáveis do template para este destinatário
+     */
+    public record Recipient(String email, Map<String, Object> variables) {
+    }
+    
     @Autowired(required = false)
     private JavaMailSender mailSender;
     
     @Autowired(required = false)
     private TemplateEngine templateEngine;
     
-    @Value("${spring.mail.username:noreply@sparkwave.com}")
-    private String fromEmail;
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+    
+    @Autowired
+    private EmailOutboxRelay emailOutboxRelay;
+    
+    @Autowired
+    private EmailOutboxCipher emailOutboxCipher;
     
     @Value("${sparkwave.app.email.enabled:false}")
     private boolean emailEnabled;
@@ -44,25 +108,15 @@ public class EmailService {
      * @param subject Assunto
      * @param text Conteúdo
      */
-    @Async
     public void sendSimpleEmail(String to, String subject, String text) {
         if (!emailEnabled || mailSender == null) {
             logger.info("E-mail não enviado (desabilitado): Para: {}, Assunto: {}", to, subject);
             return;
         }
         
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(text);
-            
-            mailSender.send(message);
-            logger.info("E-mail simples enviado para: {}", to);
-        } catch (Exception e) {
-            logger.error("Erro ao enviar e-mail simples para: {}", to, e);
-        }
+        emailOutboxRepository.save(newOutboxEntry(to, subject, text, false));
+        wakeUpRelayAfterCommit();
+        logger.info("E-mail simples enfileirado para: {}", to);
     }
     
     /**
@@ -73,34 +127,98 @@ public class EmailService {
      * @param templateName Nome do template
      * @param variables Variáveis para o template
      */
-    @Async
     public void sendTemplateEmail(String to, String subject, String templateName, Map<String, Object> variables) {
+        sendBulkTemplateEmail(subject, templateName, List.of(new Recipient(to, variables)));
+    }
+    
+    /**
+     * Envia o mesmo e-mail de texto simples para vários destinatários, renderizando um template
+     * compilado com as variáveis de cada um. Os registros são gravados na outbox em lote.
+     *
+     * @param subject Assunto
+     * @param template Template compilado
+     * @param recipients Destinatários
+     */
+    public void sendBulkEmail(String subject, MailTemplate template, List<Recipient> recipients) {
+        if (!emailEnabled || mailSender == null) {
+            logger.info("E-mails não enviados (desabilitado): {} destinatários, Assunto: {}", recipients.size(), subject);
+            return;
+        }
+        
+        List<EmailOutbox> entries = new ArrayList<>(recipients.size());
+        for (Recipient recipient : recipients) {
+            entries.add(newOutboxEntry(recipient.email(), subject, template.render(recipient.variables()), false));
+        }
+        saveAll(entries);
+        logger.info("{} e-mails enfileirados, Assunto: {}", entries.size(), subject);
+    }
+    
+    /**
+     * Envia o mesmo e-mail HTML para vários destinatários. O template é analisado uma única vez
+     * pelo cache do {@link TemplateEngine} e o contexto de renderização é reaproveitado entre os destinatários.
+     *
+     * @param subject Assunto
+     * @param templateName Nome do template
+     * @param recipients Destinatários
+     */
+    public void sendBulkTemplateEmail(String subject, String templateName, List<Recipient> recipients) {
         if (!emailEnabled || mailSender == null || templateEngine == null) {
-            logger.info("E-mail de template não enviado (desabilitado): Para: {}, Assunto: {}, Template: {}", 
-                    to, subject, templateName);
+            logger.info("E-mails de template não enviados (desabilitado): {} destinatários, Assunto: {}, Template: {}",
+                    recipients.size(), subject, templateName);
             return;
         }
         
-        try {
-            // Preparar o contexto do template
-            Context context = new Context();
-            variables.forEach(context::setVariable);
-            
-            // Processar o template
-            String htmlContent = templateEngine.process(templateName, context);
-            
-            // Criar a mensagem
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            helper.setFrom(fromEmail);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(htmlContent, true);
-            
-            mailSender.send(message);
-            logger.info("E-mail de template enviado para: {}, Template: {}", to, templateName);
-        } catch (MessagingException e) {
-            logger.error("Erro ao enviar e-mail de template para: {}, Template: {}", to, templateName, e);
+        List<EmailOutbox> entries = new ArrayList<>(recipients.size());
+        Context context = new Context();
+        for (Recipient recipient : recipients) {
+            String htmlContent;
+            try {
+                context.clearVariables();
+                context.setVariables(recipient.variables());
+                htmlContent = templateEngine.process(templateName, context);
+            } catch (Exception e) {
+                logger.error("Erro ao processar template de e-mail para: {}, Template: {}",
+                        recipient.email(), templateName, e);
+                continue;
+            }
+            entries.add(newOutboxEntry(recipient.email(), subject, htmlContent, true));
+        }
+        saveAll(entries);
+        logger.info("{} e-mails de template enfileirados, Template: {}", entries.size(), templateName);
+    }
+    
+    private void saveAll(List<EmailOutbox> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        emailOutboxRepository.saveAll(entries);
+        wakeUpRelayAfterCommit();
+    }
+    
+    private EmailOutbox newOutboxEntry(String to, String subject, String body, boolean html) {
+        EmailOutbox email = new EmailOutbox();
+        email.setRecipient(to);
+        email.setSubject(subject);
+        email.setBody(emailOutboxCipher.encrypt(body));
+        email.setHtml(html);
+        email.setCreatedAt(LocalDateTime.now());
+        return email;
+    }
+    
+    /**
+     * Acorda o relay após o commit da transação corrente.
+     * Sem transação ativa, os registros já foram gravados na transação do próprio repositório.
+     */
+    private void wakeUpRelayAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    emailOutboxRelay.wakeUp();
+                }
+            });
+        } else {
+            emailOutboxRelay.wakeUp();
         }
     }
     
@@ -110,57 +228,48 @@ public class EmailService {
      * @param user Usuário
      * @param password Senha (opcional, apenas para usuários criados pelo administrador)
      */
-    @Async
     public void sendWelcomeEmail(User user, String password) {
         if (password != null && !password.isEmpty()) {
             // Usuário criado pelo administrador
-            String subject = "Bem-vindo à SparkWave Consultoria Empresarial";
-            String text = String.format(
-                    "Olá %s,\n\n" +
-                    "Sua conta foi criada na plataforma da SparkWave Consultoria Empresarial.\n\n" +
-                    "Suas credenciais de acesso são:\n" +
-                    "Usuário: %s\n" +
-                    "Senha: %s\n\n" +
-                    "Recomendamos que altere sua senha após o primeiro acesso.\n\n" +
-                    "Atenciosamente,\n" +
-                    "Equipe SparkWave",
-                    user.getFullName(), user.getUsername(), password);
-            
-            sendSimpleEmail(user.getEmail(), subject, text);
+            sendSimpleEmail(user.getEmail(), WELCOME_SUBJECT, WELCOME_WITH_PASSWORD.render(Map.of(
+                    "fullName", String.valueOf(user.getFullName()),
+                    "username", user.getUsername(),
+                    "password", password)));
         } else {
             // Usuário se registrou
-            String subject = "Bem-vindo à SparkWave Consultoria Empresarial";
-            String text = String.format(
-                    "Olá %s,\n\n" +
-                    "Sua conta foi criada com sucesso na plataforma da SparkWave Consultoria Empresarial.\n\n" +
-                    "Você já pode acessar nossos serviços utilizando seu nome de usuário: %s\n\n" +
-                    "Atenciosamente,\n" +
-                    "Equipe SparkWave",
-                    user.getFullName(), user.getUsername());
-            
-            sendSimpleEmail(user.getEmail(), subject, text);
+            sendSimpleEmail(user.getEmail(), WELCOME_SUBJECT, WELCOME.render(Map.of(
+                    "fullName", String.valueOf(user.getFullName()),
+                    "username", user.getUsername())));
         }
     }
     
+    /**
+     * Envia o e-mail de boas-vindas com as credenciais para vários usuários criados pelo administrador.
+     *
+     * @param users Usuários
+     * @param passwordsByUsername Senha em texto plano de cada usuário, por nome de usuário
+     */
+    public void sendWelcomeEmails(List<User> users, Map<String, String> passwordsByUsername) {
+        List<Recipient> recipients = new ArrayList<>(users.size());
+        for (User user : users) {
+            recipients.add(new Recipient(user.getEmail(), Map.of(
+                    "fullName", String.valueOf(user.getFullName()),
+                    "username", user.getUsername(),
+                    "password", passwordsByUsername.get(user.getUsername()))));
+        }
+        sendBulkEmail(WELCOME_SUBJECT, WELCOME_WITH_PASSWORD, recipients);
+    }
+    
     /**
      * Envia um e-mail de redefinição de senha.
      *
      * @param user Usuário
      * @param newPassword Nova senha
      */
-    @Async
     public void sendPasswordResetEmail(User user, String newPassword) {
-        String subject = "Redefinição de Senha - SparkWave Consultoria Empresarial";
-        String text = String.format(
-                "Olá %s,\n\n" +
-                "Sua senha foi redefinida na plataforma da SparkWave Consultoria Empresarial.\n\n" +
-                "Sua nova senha é: %s\n\n" +
-                "Recomendamos que altere esta senha após o próximo acesso.\n\n" +
-                "Atenciosamente,\n" +
-                "Equipe SparkWave",
-                user.getFullName(), newPassword);
-        
-        sendSimpleEmail(user.getEmail(), subject, text);
+        sendSimpleEmail(user.getEmail(), PASSWORD_RESET_SUBJECT, PASSWORD_RESET.render(Map.of(
+                "fullName", String.valueOf(user.getFullName()),
+                "password", newPassword)));
     }
     
     /**
@@ -169,21 +278,22 @@ public class EmailService {
      * @param user Usuário
      * @param active Status de ativação
      */
-    @Async
     public void sendAccountStatusEmail(User user, boolean active) {
-        String status = active ? "ativada" : "desativada";
-        String subject = "Status da Conta - SparkWave Consultoria Empresarial";
-        String text = String.format(
-                "Olá %s,\n\n" +
-                "Informamos que sua conta na plataforma da SparkWave Consultoria Empresarial foi %s.\n\n" +
-                (active ? 
-                "Você já pode acessar nossos serviços normalmente.\n\n" : 
-                "Caso tenha dúvidas, entre em contato com nosso suporte.\n\n") +
-                "Atenciosamente,\n" +
-                "Equipe SparkWave",
-                user.getFullName(), status);
-        
-        sendSimpleEmail(user.getEmail(), subject, text);
+        sendAccountStatusEmails(List.of(user), active);
+    }
+    
+    /**
+     * Envia o e-mail de alteração de status da conta para vários usuários,
+     * por exemplo em uma reativação em massa.
+     *
+     * @param users Usuários
+     * @param active Status de ativação
+     */
+    public void sendAccountStatusEmails(List<User> users, boolean active) {
+        List<Recipient> recipients = new ArrayList<>(users.size());
+        for (User user : users) {
+            recipients.add(new Recipient(user.getEmail(), Map.of("fullName", String.valueOf(user.getFullName()))));
+        }
+        sendBulkEmail(ACCOUNT_STATUS_SUBJECT, active ? ACCOUNT_ACTIVATED : ACCOUNT_DEACTIVATED, recipients);
     }
 }
-
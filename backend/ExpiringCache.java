@@ -0,0 +1,115 @@
+package com.sparkwave.login.security;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache em memória limitado por tamanho, com expiração individual por entrada.
+ *
+ * @param <K> Tipo da chave
+ * @param <V> Tipo do valor
+ */
+public class ExpiringCache<K, V> {
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    private final int maxSize;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ExpiringCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Obtém um valor ainda válido do cache.
+     *
+     * @param key Chave
+     * @return Valor, ou null se ausente ou expirado
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    /**
+     * Armazena um valor até o instante de expiração informado.
+     *
+     * @param key Chave
+     * @param value Valor
+     * @param expiresAt Instante de expiração em milissegundos (epoch)
+     */
+    public void put(K key, V value, long expiresAt) {
+        if (expiresAt <= System.currentTimeMillis() || maxSize <= 0) {
+            return;
+        }
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            makeRoom();
+        }
+        entries.put(key, new Entry<>(value, expiresAt));
+    }
+
+    /**
+     * Remove uma entrada do cache.
+     *
+     * @param key Chave
+     */
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Remove todas as entradas do cache.
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Remove entradas expiradas e, se ainda estiver cheio, descarta entradas arbitrárias.
+     */
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (entries.size() >= maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Obtém as estatísticas de uso do cache.
+     *
+     * @return Estatísticas
+     */
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "size", entries.size(),
+                "maxSize", maxSize,
+                "hits", hits.get(),
+                "misses", misses.get(),
+                "evictions", evictions.get());
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
@@ -1,24 +1,42 @@
 package com.sparkwave.login.controller;
 
-import com.sparkwave.login.model.AccessLog;
-import com.sparkwave.login.model.User;
-import com.sparkwave.login.service.AccessLogService;
-import com.sparkwave.login.service.UserService;
+import com.sparkwave.login.model.ExportFormat;
+import com.sparkwave.login.model.ExportJob;
+import com.sparkwave.login.model.ExportJobRequest;
+import com.sparkwave.login.model.MessageResponse;
+import com.sparkwave.login.service.ColumnarAccessLogExportWriter;
+import com.sparkwave.login.service.CsvWriter;
+import com.sparkwave.login.service.ExportJobService;
+import com.sparkwave.login.service.ExportService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Controlador para exportação de dados.
+ * Os arquivos são gerados em fluxo diretamente na resposta, sem carregar as tabelas em memória,
+ * e comprimidos com gzip quando o cliente envia {@code Accept-Encoding: gzip}.
  */
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -26,43 +44,46 @@ import java.util.stream.Collectors;
 @PreAuthorize("hasRole('ADMIN')")
 public class ExportController {
 
+    /**
+     * Tipo de mídia do formato colunar binário descrito em {@link ColumnarAccessLogExportWriter}.
+     */
+    public static final MediaType COLUMNAR_MEDIA_TYPE = MediaType.parseMediaType(ExportFormat.COLUMNAR.getContentType());
+
     @Autowired
-    private UserService userService;
-    
+    private ExportService exportService;
+
     @Autowired
-    private AccessLogService accessLogService;
+    private ExportJobService exportJobService;
 
     /**
      * Exporta a lista de usuários em formato CSV.
      *
+     * @param acceptEncoding Codificações aceitas pelo cliente
      * @return Arquivo CSV
      */
     @GetMapping("/users/csv")
-    public ResponseEntity<String> exportUsersAsCsv() {
-        List<User> users = userService.findAll();
+    public ResponseEntity<StreamingResponseBody> exportUsersAsCsv(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = acceptsGzip(acceptEncoding);
         
-        // Cabeçalho do CSV
-        StringBuilder csv = new StringBuilder();
-        csv.append("ID,Username,Email,Nome Completo,Ativo,Perfis\n");
-        
-        // Dados dos usuários
-        for (User user : users) {
-            csv.append(user.getId()).append(",");
-            csv.append(user.getUsername()).append(",");
-            csv.append(user.getEmail()).append(",");
-            csv.append(escapeCsvField(user.getFullName())).append(",");
-            csv.append(user.isActive()).append(",");
-            csv.append(escapeCsvField(String.join(", ", user.getRoles()))).append("\n");
-        }
-        
-        // Configurar o cabeçalho da resposta
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.TEXT_PLAIN);
-        headers.setContentDispositionFormData("attachment", "usuarios_sparkwave.csv");
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = gzip ? new GZIPOutputStream(outputStream, 64 * 1024) : outputStream;
+            CsvWriter csv = new CsvWriter(out);
+            
+            // Cabeçalho do CSV
+            csv.writeRow("ID", "Username", "Email", "Nome Completo", "Ativo", "Perfis");
+            
+            // Dados dos usuários
+            exportService.forEachUser(user -> csv.writeRow(user.getId(), user.getUsername(), user.getEmail(),
+                    user.getFullName(), user.isActive(), String.join(", ", user.getRoles())));
+            
+            csv.flush();
+            finish(out);
+        };
         
         return ResponseEntity.ok()
-                .headers(headers)
-                .body(csv.toString());
+                .headers(exportHeaders(MediaType.TEXT_PLAIN, "usuarios_sparkwave.csv", gzip))
+                .body(body);
     }
 
     /**
@@ -70,69 +91,285 @@ public class ExportController {
      *
      * @param start Data/hora inicial (opcional)
      * @param end Data/hora final (opcional)
+     * @param userId ID do usuário (opcional)
+     * @param status Status (opcional)
+     * @param action Ação registrada no log (opcional)
+     * @param acceptEncoding Codificações aceitas pelo cliente
      * @return Arquivo CSV
      */
     @GetMapping("/access-logs/csv")
-    public ResponseEntity<String> exportAccessLogsAsCsv(
+    public ResponseEntity<StreamingResponseBody> exportAccessLogsAsCsv(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String action,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return exportAccessLogs(start, end, userId, status, action, false, acceptsGzip(acceptEncoding));
+    }
+
+    /**
+     * Exporta o histórico de acessos no formato negociado pelo cabeçalho {@code Accept}:
+     * colunar binário para {@code application/vnd.sparkwave.access-logs+columnar}, CSV nos demais casos.
+     *
+     * @param start Data/hora inicial (opcional)
+     * @param end Data/hora final (opcional)
+     * @param userId ID do usuário (opcional)
+     * @param status Status (opcional)
+     * @param action Ação registrada no log (opcional)
+     * @param accept Tipos de mídia aceitos pelo cliente
+     * @param acceptEncoding Codificações aceitas pelo cliente
+     * @return Arquivo exportado
+     */
+    @GetMapping("/access-logs")
+    public ResponseEntity<StreamingResponseBody> exportAccessLogs(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String action,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return exportAccessLogs(start, end, userId, status, action, acceptsColumnar(accept), acceptsGzip(acceptEncoding));
+    }
+
+    /**
+     * Gera a resposta de exportação do histórico de acessos.
+     *
+     * @param start Data/hora inicial (opcional)
+     * @param end Data/hora final (opcional)
+     * @param userId ID do usuário (opcional)
+     * @param status Status (opcional)
+     * @param action Ação registrada no log (opcional)
+     * @param columnar true para o formato colunar, false para CSV
+     * @param gzip true para comprimir a resposta
+     * @return Arquivo exportado
+     */
+    private ResponseEntity<StreamingResponseBody> exportAccessLogs(LocalDateTime start, LocalDateTime end,
+                                                                  Long userId, String status, String action,
+                                                                  boolean columnar, boolean gzip) {
+        ExportFormat format = columnar ? ExportFormat.COLUMNAR : ExportFormat.CSV;
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = gzip ? new GZIPOutputStream(outputStream, 64 * 1024) : outputStream;
+            exportService.exportAccessLogs(start, end, userId, status, action, exportService.createWriter(format, out));
+            finish(out);
+        };
+        
+        HttpHeaders headers = columnar
+                ? exportHeaders(COLUMNAR_MEDIA_TYPE, "historico_acessos_sparkwave.swal", gzip)
+                : exportHeaders(MediaType.TEXT_PLAIN, "historico_acessos_sparkwave.csv", gzip);
+        
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
+    }
+    
+    /**
+     * Agenda a exportação do histórico de acessos em segundo plano.
+     *
+     * @param request Parâmetros da exportação
+     * @return Trabalho de exportação criado
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<?> createExportJob(@RequestBody ExportJobRequest request) {
+        if (request.getFormat() == null) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Erro: Formato de exportação obrigatório."));
+        }
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(exportJobService.submit(request));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new MessageResponse("Erro: Muitas exportações em andamento, tente novamente mais tarde."));
+        }
+    }
+
+    /**
+     * Obtém a situação de um trabalho de exportação.
+     *
+     * @param id ID do trabalho
+     * @return Trabalho de exportação
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ExportJob> getExportJob(@PathVariable String id) {
+        return exportJobService.findById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Baixa o arquivo de um trabalho de exportação concluído, com suporte a requisições
+     * {@code Range} para retomar downloads interrompidos. Quando o Tomcat oferece sendfile,
+     * o arquivo é transferido sem cópia para a memória da aplicação.
+     *
+     * @param id ID do trabalho
+     * @param request Requisição HTTP
+     * @param response Resposta HTTP
+     * @throws IOException Em caso de falha de leitura ou escrita
+     */
+    @GetMapping("/jobs/{id}/download")
+    public void downloadExportJob(@PathVariable String id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        ExportJob job = exportJobService.findById(id).orElse(null);
+        if (job == null) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        if (job.getStatus() != ExportJob.Status.COMPLETED) {
+            response.sendError(HttpStatus.CONFLICT.value(), "Exportação ainda não concluída");
+            return;
+        }
         
-        List<AccessLog> logs;
+        FileChannel channel;
+        try {
+            channel = exportJobService.openForDownload(job);
+        } catch (NoSuchFileException e) {
+            response.sendError(HttpStatus.GONE.value(), "Arquivo de exportação expirado");
+            return;
+        }
         
-        if (start != null && end != null) {
-            logs = accessLogService.findByPeriod(start, end);
-        } else {
-            logs = accessLogService.findAll();
+        try (channel) {
+            transfer(job, channel, request, response);
         }
+    }
+    
+    /**
+     * Envia o arquivo de um trabalho concluído, inteiro ou no intervalo pedido pelo cabeçalho
+     * {@code Range}.
+     */
+    private void transfer(ExportJob job, FileChannel channel, HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        long length = channel.size();
+        long start = 0;
+        long end = length - 1;
         
-        // Cabeçalho do CSV
-        StringBuilder csv = new StringBuilder();
-        csv.append("ID,Usuário,Data/Hora,Endereço IP,User Agent,Ação,Status\n");
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                if (ranges.size() != 1) {
+                    throw new IllegalArgumentException("Apenas um intervalo é suportado");
+                }
+                start = ranges.get(0).getRangeStart(length);
+                end = ranges.get(0).getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
         
-        // Formatador de data/hora
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        long count = end - start + 1;
+        response.setContentType(job.isGzip() ? "application/gzip" : job.getFormat().getContentType());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + job.getFilename() + "\"");
+        response.setContentLengthLong(count);
         
-        // Dados dos logs
-        for (AccessLog log : logs) {
-            csv.append(log.getId()).append(",");
-            csv.append(log.getUser().getUsername()).append(",");
-            csv.append(log.getAccessTime().format(formatter)).append(",");
-            csv.append(escapeCsvField(log.getIpAddress())).append(",");
-            csv.append(escapeCsvField(log.getUserAgent())).append(",");
-            csv.append(escapeCsvField(log.getAction())).append(",");
-            csv.append(escapeCsvField(log.getStatus())).append("\n");
+        if (Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+            request.setAttribute("org.apache.tomcat.sendfile.filename", job.getFile().toAbsolutePath().toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", start);
+            request.setAttribute("org.apache.tomcat.sendfile.end", end + 1);
+            return;
         }
         
-        // Configurar o cabeçalho da resposta
+        WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+        long position = start;
+        while (position <= end) {
+            position += channel.transferTo(position, end + 1 - position, target);
+        }
+    }
+    
+    /**
+     * Cria os cabeçalhos de resposta para um arquivo exportado.
+     *
+     * @param contentType Tipo de mídia
+     * @param filename Nome do arquivo
+     * @param gzip true se a resposta for comprimida
+     * @return Cabeçalhos HTTP
+     */
+    private HttpHeaders exportHeaders(MediaType contentType, String filename, boolean gzip) {
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.TEXT_PLAIN);
-        headers.setContentDispositionFormData("attachment", "historico_acessos_sparkwave.csv");
-        
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(csv.toString());
+        headers.setContentType(contentType);
+        headers.setContentDispositionFormData("attachment", filename);
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return headers;
     }
     
     /**
-     * Escapa campos para o formato CSV.
+     * Finaliza a compressão, se houver, sem fechar o fluxo da resposta.
      *
-     * @param field Campo a ser escapado
-     * @return Campo escapado
+     * @param out Fluxo de saída
+     * @throws IOException Em caso de falha de escrita
      */
-    private String escapeCsvField(String field) {
-        if (field == null) {
-            return "";
+    private void finish(OutputStream out) throws IOException {
+        if (out instanceof GZIPOutputStream gzipOutputStream) {
+            gzipOutputStream.finish();
         }
-        
-        // Se o campo contém vírgula, aspas ou quebra de linha, envolve em aspas
-        if (field.contains(",") || field.contains("\"") || field.contains("\n")) {
-            // Substituir aspas por aspas duplas
-            field = field.replace("\"", "\"\"");
-            // Envolver em aspas
-            return "\"" + field + "\"";
+        out.flush();
+    }
+    
+    /**
+     * Verifica se o cliente aceita respostas comprimidas com gzip.
+     *
+     * @param acceptEncoding Valor do cabeçalho Accept-Encoding
+     * @return true se gzip for aceito
+     */
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String encoding : acceptEncoding.split(",")) {
+            String[] parts = encoding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return quality(parts) > 0;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Obtém o valor q dos parâmetros de uma codificação. Sem o parâmetro, o valor é 1;
+     * um valor inválido é tratado como 0, e a codificação é recusada.
+     *
+     * @param parts Codificação seguida dos seus parâmetros
+     * @return Valor q, entre 0 e 1
+     */
+    private double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 1 && Character.toLowerCase(parameter.charAt(0)) == 'q'
+                    && parameter.substring(1).trim().startsWith("=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(parameter.indexOf('=') + 1).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+    
+    /**
+     * Verifica se o cliente solicitou explicitamente o formato colunar.
+     *
+     * @param accept Valor do cabeçalho Accept
+     * @return true se o formato colunar for aceito
+     */
+    private boolean acceptsColumnar(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .anyMatch(mediaType -> COLUMNAR_MEDIA_TYPE.equalsTypeAndSubtype(mediaType)
+                            && mediaType.getQualityValue() > 0);
+        } catch (InvalidMediaTypeException e) {
+            return false;
         }
-        
-        return field;
     }
 }
-
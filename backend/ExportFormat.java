@@ -0,0 +1,26 @@
+package com.sparkwave.login.model;
+
+/**
+ * Formatos de exportação do histórico de acessos.
+ */
+public enum ExportFormat {
+    CSV("text/plain", "csv"),
+    COLUMNAR("application/vnd.sparkwave.access-logs+columnar", "swal");
+
+    private final String contentType;
+
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
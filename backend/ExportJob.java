@@ -0,0 +1,58 @@
+package com.sparkwave.login.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+/**
+ * Estado de um trabalho de exportação do histórico de acessos executado em segundo plano.
+ */
+@Data
+public class ExportJob {
+
+    /**
+     * Situação do trabalho de exportação.
+     */
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private String id;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Long userId;
+    private String logStatus;
+    private String logAction;
+    private ExportFormat format;
+    private boolean gzip;
+    private volatile Status status = Status.PENDING;
+    private LocalDateTime createdAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile long sizeBytes;
+    private volatile String error;
+
+    @JsonIgnore
+    private volatile LocalDateTime lastDownloadAt;
+
+    /**
+     * Prefixo dos arquivos de exportação no diretório de spool.
+     */
+    public static final String FILENAME_PREFIX = "historico_acessos_sparkwave_";
+
+    @JsonIgnore
+    private Path file;
+
+    /**
+     * Obtém o nome do arquivo para download.
+     *
+     * @return Nome do arquivo
+     */
+    public String getFilename() {
+        return FILENAME_PREFIX + id + "." + format.getExtension() + (gzip ? ".gz" : "");
+    }
+}
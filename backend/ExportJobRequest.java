@@ -0,0 +1,22 @@
+package com.sparkwave.login.model;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO para a requisição de um trabalho de exportação em segundo plano.
+ */
+@Data
+public class ExportJobRequest {
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime start;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime end;
+    private Long userId;
+    private String logStatus;
+    private String logAction;
+    private ExportFormat format = ExportFormat.CSV;
+    private boolean gzip;
+}
@@ -0,0 +1,223 @@
+package com.sparkwave.login.service;
+
+import com.sparkwave.login.model.ExportJob;
+import com.sparkwave.login.model.ExportJobRequest;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serviço que executa exportações do histórico de acessos em segundo plano, gravando o
+ * resultado em um arquivo de spool local que pode ser baixado em partes.
+ */
+@Service
+public class ExportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportJobService.class);
+
+    private static final int CHUNK_SIZE = 256 * 1024;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Value("${sparkwave.app.export.spool-dir:${java.io.tmpdir}/sparkwave-exports}")
+    private String spoolDir;
+
+    @Value("${sparkwave.app.export.threads:2}")
+    private int threads;
+
+    @Value("${sparkwave.app.export.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${sparkwave.app.export.retention-ms:86400000}")
+    private long retentionMs;
+
+    @Value("${sparkwave.app.export.cleanup-interval-ms:600000}")
+    private long cleanupIntervalMs;
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    private ScheduledExecutorService cleanup;
+
+    private Path spoolPath;
+
+    @PostConstruct
+    public void start() throws IOException {
+        spoolPath = Files.createDirectories(Paths.get(spoolDir));
+        removeOrphanedFiles();
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "export-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        cleanup = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "export-job-cleanup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        cleanup.scheduleWithFixedDelay(this::removeExpiredJobs, cleanupIntervalMs, cleanupIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        cleanup.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Agenda um novo trabalho de exportação.
+     *
+     * @param request Parâmetros da exportação
+     * @return Trabalho criado
+     * @throws java.util.concurrent.RejectedExecutionException Se a fila de exportações estiver cheia
+     */
+    public ExportJob submit(ExportJobRequest request) {
+        ExportJob job = new ExportJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setStart(request.getStart());
+        job.setEnd(request.getEnd());
+        job.setUserId(request.getUserId());
+        job.setLogStatus(request.getLogStatus());
+        job.setLogAction(request.getLogAction());
+        job.setFormat(request.getFormat());
+        job.setGzip(request.isGzip());
+        job.setCreatedAt(LocalDateTime.now());
+        job.setFile(spoolPath.resolve(job.getFilename()));
+
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RuntimeException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        return job;
+    }
+
+    /**
+     * Busca um trabalho de exportação pelo ID.
+     *
+     * @param id ID do trabalho
+     * @return Optional contendo o trabalho, se encontrado
+     */
+    public Optional<ExportJob> findById(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * Executa a exportação em um arquivo temporário, renomeado ao final para o arquivo definitivo.
+     */
+    private void run(ExportJob job) {
+        job.setStatus(ExportJob.Status.RUNNING);
+        Path partial = job.getFile().resolveSibling(job.getFile().getFileName() + ".part");
+        try {
+            try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(partial), CHUNK_SIZE)) {
+                OutputStream out = job.isGzip() ? new GZIPOutputStream(file, CHUNK_SIZE) : file;
+                exportService.exportAccessLogs(job.getStart(), job.getEnd(), job.getUserId(), job.getLogStatus(),
+                        job.getLogAction(), exportService.createWriter(job.getFormat(), out));
+                if (out instanceof GZIPOutputStream gzipOutputStream) {
+                    gzipOutputStream.finish();
+                }
+            }
+            Files.move(partial, job.getFile(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.setSizeBytes(Files.size(job.getFile()));
+            job.setStatus(ExportJob.Status.COMPLETED);
+        } catch (Exception e) {
+            logger.error("Erro ao executar a exportação {}", job.getId(), e);
+            job.setError(e.getMessage());
+            job.setStatus(ExportJob.Status.FAILED);
+            deleteQuietly(partial);
+        } finally {
+            job.setFinishedAt(LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Abre o arquivo de um trabalho concluído para download. O download renova a retenção do
+     * trabalho, para que a limpeza não remova o arquivo durante uma transferência ou retomada.
+     *
+     * @param job Trabalho concluído
+     * @return Canal de leitura do arquivo
+     * @throws java.nio.file.NoSuchFileException Se o arquivo já tiver sido removido
+     * @throws IOException Em caso de falha de leitura
+     */
+    public FileChannel openForDownload(ExportJob job) throws IOException {
+        job.setLastDownloadAt(LocalDateTime.now());
+        return FileChannel.open(job.getFile(), StandardOpenOption.READ);
+    }
+
+    /**
+     * Remove os trabalhos finalizados, e não baixados, há mais tempo que o período de retenção,
+     * com seus arquivos. Executado periodicamente, mesmo sem novas exportações.
+     */
+    private void removeExpiredJobs() {
+        try {
+            LocalDateTime limit = LocalDateTime.now().minusNanos(retentionMs * 1_000_000);
+            jobs.values().removeIf(job -> {
+                if (job.getFinishedAt() != null && job.getFinishedAt().isBefore(limit)
+                        && (job.getLastDownloadAt() == null || job.getLastDownloadAt().isBefore(limit))) {
+                    deleteQuietly(job.getFile());
+                    return true;
+                }
+                return false;
+            });
+        } catch (RuntimeException e) {
+            logger.error("Erro ao remover exportações expiradas", e);
+        }
+    }
+
+    /**
+     * Remove os arquivos de exportação deixados por uma execução anterior. Os trabalhos ficam
+     * apenas em memória, então nenhum desses arquivos pode mais ser baixado.
+     */
+    private void removeOrphanedFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spoolPath, ExportJob.FILENAME_PREFIX + "*")) {
+            for (Path file : files) {
+                deleteQuietly(file);
+            }
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Não foi possível remover o arquivo de exportação {}", path, e);
+        }
+    }
+}
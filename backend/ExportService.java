@@ -0,0 +1,187 @@
+package com.sparkwave.login.service;
+
+import com.sparkwave.login.model.AccessLogView;
+import com.sparkwave.login.model.ExportFormat;
+import com.sparkwave.login.model.UserDTO;
+import com.sparkwave.login.repository.AccessLogRepository;
+import com.sparkwave.login.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Serviço para leitura em fluxo dos dados exportados, com memória limitada independentemente
+ * do tamanho das tabelas.
+ */
+@Service
+public class ExportService {
+
+    private static final int CLEAR_INTERVAL = 1000;
+
+    private static final LocalDateTime NO_START = LocalDateTime.of(1, 1, 1, 0, 0);
+
+    private static final LocalDateTime NO_END = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    @Autowired
+    private AccessLogRepository accessLogRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Ação executada para cada linha exportada, que pode falhar ao escrever no destino.
+     */
+    @FunctionalInterface
+    public interface RowAction<T> {
+        void accept(T row) throws IOException;
+    }
+
+    /**
+     * Percorre os logs de acesso em ordem cronológica, opcionalmente filtrados por período,
+     * usuário, status e ação.
+     *
+     * @param start Data/hora inicial (opcional)
+     * @param end Data/hora final (opcional)
+     * @param userId ID do usuário (opcional)
+     * @param status Status (opcional)
+     * @param action Ação registrada no log (opcional)
+     * @param handler Ação executada para cada log
+     * @throws IOException Em caso de falha da ação
+     */
+    public void forEachAccessLog(LocalDateTime start, LocalDateTime end, Long userId, String status,
+                                 String action, RowAction<AccessLogView> handler) throws IOException {
+        boolean anyStatus = status == null || status.isBlank();
+        boolean anyAction = action == null || action.isBlank();
+        inReadOnlyTransaction(() -> {
+            try (Stream<AccessLogView> logs = accessLogRepository.streamForExport(
+                    start != null ? start : NO_START,
+                    end != null ? end : NO_END,
+                    userId == null, userId != null ? userId : 0L,
+                    anyStatus, anyStatus ? "" : status.trim(),
+                    anyAction, anyAction ? "" : action.trim())) {
+                forEachClearing(logs, handler);
+            }
+        });
+    }
+
+    /**
+     * Cria o escritor do formato de exportação informado.
+     *
+     * @param format Formato de exportação
+     * @param outputStream Destino
+     * @return Escritor do formato
+     * @throws IOException Em caso de falha de escrita
+     */
+    public AccessLogExportWriter createWriter(ExportFormat format, OutputStream outputStream) throws IOException {
+        return format == ExportFormat.COLUMNAR
+                ? new ColumnarAccessLogExportWriter(outputStream)
+                : new CsvAccessLogExportWriter(outputStream);
+    }
+
+    /**
+     * Escreve os logs de acesso, opcionalmente filtrados por período, usuário, status e ação,
+     * no formato informado.
+     *
+     * @param start Data/hora inicial (opcional)
+     * @param end Data/hora final (opcional)
+     * @param userId ID do usuário (opcional)
+     * @param status Status (opcional)
+     * @param action Ação registrada no log (opcional)
+     * @param writer Escritor do formato de exportação
+     * @throws IOException Em caso de falha de escrita (ex.: cliente desconectado)
+     */
+    public void exportAccessLogs(LocalDateTime start, LocalDateTime end, Long userId, String status,
+                                 String action, AccessLogExportWriter writer) throws IOException {
+        forEachAccessLog(start, end, userId, status, action, writer::write);
+        writer.finish();
+    }
+
+    /**
+     * Percorre todos os usuários ordenados por ID. Os perfis vêm na mesma consulta, e as linhas
+     * consecutivas de um usuário são agrupadas em um único DTO.
+     *
+     * @param action Ação executada para cada usuário
+     * @throws IOException Em caso de falha da ação
+     */
+    public void forEachUser(RowAction<UserDTO> action) throws IOException {
+        inReadOnlyTransaction(() -> {
+            try (Stream<Object[]> rows = userRepository.streamAllWithRoles()) {
+                UserDTO current = null;
+                Iterator<Object[]> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    Object[] row = iterator.next();
+                    if (current == null || !current.getId().equals(row[0])) {
+                        if (current != null) {
+                            action.accept(current);
+                        }
+                        current = new UserDTO((Long) row[0], (String) row[1], (String) row[2], null,
+                                (String) row[3], (Boolean) row[4], new HashSet<>());
+                    }
+                    if (row[5] != null) {
+                        current.getRoles().add((String) row[5]);
+                    }
+                }
+                if (current != null) {
+                    action.accept(current);
+                }
+            }
+        });
+    }
+
+    /**
+     * Consome o stream limpando periodicamente o contexto de persistência, para que as
+     * entidades já processadas possam ser coletadas.
+     */
+    private <T> void forEachClearing(Stream<T> stream, RowAction<T> action) throws IOException {
+        Iterator<T> iterator = stream.iterator();
+        int count = 0;
+        while (iterator.hasNext()) {
+            action.accept(iterator.next());
+            if (++count % CLEAR_INTERVAL == 0) {
+                entityManager.clear();
+            }
+        }
+    }
+
+    /**
+     * Executa a leitura em uma transação somente leitura. A falha de escrita atravessa o
+     * callback da transação encapsulada e é relançada como a IOException original.
+     */
+    private void inReadOnlyTransaction(ReadCallback callback) throws IOException {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try {
+                    callback.run();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ReadCallback {
+        void run() throws IOException;
+    }
+}
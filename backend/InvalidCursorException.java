@@ -0,0 +1,15 @@
+package com.sparkwave.login.model;
+
+/**
+ * Exceção lançada quando um cursor de paginação não pode ser decodificado.
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String msg) {
+        super(msg);
+    }
+
+    public InvalidCursorException(String msg, Throwable cause) {
+        super(msg, cause);
+    }
+}
@@ -11,14 +11,16 @@ import java.util.List;
 public class JwtResponse {
     private String token;
     private String type = "Bearer";
+    private String refreshToken;
     private Long id;
     private String username;
     private String email;
     private List<String> roles;
     private String redirectUrl;
 
-    public JwtResponse(String token, Long id, String username, String email, List<String> roles, String redirectUrl) {
+    public JwtResponse(String token, String refreshToken, Long id, String username, String email, List<String> roles, String redirectUrl) {
         this.token = token;
+        this.refreshToken = refreshToken;
         this.id = id;
         this.username = username;
         this.email = email;
@@ -2,16 +2,20 @@ package com.sparkwave.login.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
 import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Utilitário para geração e validação de tokens JWT.
@@ -20,67 +24,83 @@ import java.util.Base64;
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+    public static final String CLAIM_USER_ID = "uid";
+
+    public static final String CLAIM_ROLES = "roles";
+
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration}")
     private int jwtExpirationMs;
 
+    @Value("${jwt.stateless-claims.enabled:false}")
+    private boolean statelessClaims;
+
+    private Key signingKey;
+
+    private JwtParser jwtParser;
+
     /**
-     * Gera um token JWT para o usuário autenticado.
+     * Constrói a chave de assinatura e o parser uma única vez na inicialização.
+     */
+    @PostConstruct
+    public void init() {
+        byte[] keyBytes = Base64.getEncoder().encode(jwtSecret.getBytes());
+        this.signingKey = Keys.hmacShaKeyFor(keyBytes);
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
+    /**
+     * Gera um token JWT para o usuário autenticado, com um ID único (claim jti) que permite revogá-lo.
+     * No modo de claims sem estado, o token também carrega o ID, os perfis e a versão de token do usuário.
      *
-     * @param authentication Objeto de autenticação
+     * @param authentication Objeto de autenticação, com um {@link SparkwaveUserDetails} como principal
      * @return Token JWT
      */
     public String generateJwtToken(Authentication authentication) {
-        UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
+        SparkwaveUserDetails userPrincipal = (SparkwaveUserDetails) authentication.getPrincipal();
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject((userPrincipal.getUsername()))
                 .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
-                .compact();
-    }
+                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs));
 
-    /**
-     * Obtém a chave de assinatura para o token JWT.
-     *
-     * @return Chave de assinatura
-     */
-    private Key getSigningKey() {
-        byte[] keyBytes = Base64.getEncoder().encode(jwtSecret.getBytes());
-        return Keys.hmacShaKeyFor(keyBytes);
+        if (statelessClaims) {
+            List<String> roles = userPrincipal.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .collect(Collectors.toList());
+            builder.claim(CLAIM_USER_ID, userPrincipal.getId())
+                    .claim(CLAIM_ROLES, roles)
+                    .claim(CLAIM_TOKEN_VERSION, userPrincipal.getTokenVersion());
+        }
+
+        return builder.signWith(signingKey, SignatureAlgorithm.HS512).compact();
     }
 
     /**
-     * Extrai o nome de usuário do token JWT.
+     * Indica se os tokens carregam os perfis do usuário como claims.
      *
-     * @param token Token JWT
-     * @return Nome de usuário
+     * @return true se o modo de claims sem estado estiver habilitado
      */
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+    public boolean isStatelessClaims() {
+        return statelessClaims;
     }
 
     /**
-     * Valida um token JWT.
+     * Valida o token JWT e retorna suas claims com uma única verificação de assinatura.
      *
      * @param authToken Token JWT
-     * @return true se o token for válido, false caso contrário
+     * @return Claims do token, ou null se o token for inválido
      */
-    public boolean validateJwtToken(String authToken) {
+    public Claims parseValidClaims(String authToken) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
+            return jwtParser.parseClaimsJws(authToken).getBody();
         } catch (SecurityException e) {
             logger.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -93,7 +113,28 @@ public class JwtUtils {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
 
-        return false;
+        return null;
+    }
+
+    /**
+     * Extrai o nome de usuário do token JWT.
+     *
+     * @param token Token JWT
+     * @return Nome de usuário
+     */
+    public String getUserNameFromJwtToken(String token) {
+        return jwtParser.parseClaimsJws(token)
+                .getBody()
+                .getSubject();
     }
-}
 
+    /**
+     * Valida um token JWT.
+     *
+     * @param authToken Token JWT
+     * @return true se o token for válido, false caso contrário
+     */
+    public boolean validateJwtToken(String authToken) {
+        return parseValidClaims(authToken) != null;
+    }
+}
@@ -0,0 +1,272 @@
+package com.sparkwave.login.security;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limitador de tentativas de login por nome de usuário e por IP do cliente, consultado antes da
+ * verificação da senha para que tentativas bloqueadas não consumam o custo do BCrypt.
+ * Cada chave usa uma janela deslizante aproximada (janela atual mais a anterior ponderada pelo
+ * tempo restante). Os contadores ficam em mapas particionados, cada um protegido por seu próprio lock.
+ */
+@Component
+public class LoginAttemptLimiter {
+
+    /**
+     * Motivo da rejeição de uma tentativa.
+     */
+    public enum Decision {
+        ALLOWED,
+        USERNAME_LIMITED,
+        IP_LIMITED
+    }
+
+    @Value("${sparkwave.app.login-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${sparkwave.app.login-limit.username.max-attempts:5}")
+    private int usernameMaxAttempts;
+
+    @Value("${sparkwave.app.login-limit.username.window-ms:300000}")
+    private long usernameWindowMs;
+
+    @Value("${sparkwave.app.login-limit.ip.max-attempts:50}")
+    private int ipMaxAttempts;
+
+    @Value("${sparkwave.app.login-limit.ip.window-ms:60000}")
+    private long ipWindowMs;
+
+    @Value("${sparkwave.app.login-limit.stripes:64}")
+    private int stripes;
+
+    @Value("${sparkwave.app.login-limit.max-keys:100000}")
+    private int maxKeys;
+
+    private SlidingWindowCounter usernameCounter;
+
+    private SlidingWindowCounter ipCounter;
+
+    private final AtomicLong allowed = new AtomicLong();
+
+    private final AtomicLong rejectedByUsername = new AtomicLong();
+
+    private final AtomicLong rejectedByIp = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        usernameCounter = new SlidingWindowCounter(stripes, usernameMaxAttempts, usernameWindowMs, maxKeys);
+        ipCounter = new SlidingWindowCounter(stripes, ipMaxAttempts, ipWindowMs, maxKeys);
+    }
+
+    /**
+     * Registra uma tentativa de login, se estiver dentro dos limites.
+     * O IP é verificado primeiro; uma tentativa rejeitada não é contabilizada.
+     *
+     * @param username Nome de usuário
+     * @param clientIp IP do cliente
+     * @return Decisão
+     */
+    public Decision tryAttempt(String username, String clientIp) {
+        if (!enabled) {
+            return Decision.ALLOWED;
+        }
+        if (!ipCounter.tryAcquire(clientIp != null ? clientIp : "")) {
+            rejectedByIp.incrementAndGet();
+            return Decision.IP_LIMITED;
+        }
+        if (!usernameCounter.tryAcquire(username != null ? username : "")) {
+            rejectedByUsername.incrementAndGet();
+            return Decision.USERNAME_LIMITED;
+        }
+        allowed.incrementAndGet();
+        return Decision.ALLOWED;
+    }
+
+    /**
+     * Zera o contador do nome de usuário após um login bem-sucedido.
+     *
+     * @param username Nome de usuário
+     */
+    public void onSuccess(String username) {
+        if (enabled && username != null) {
+            usernameCounter.reset(username);
+        }
+    }
+
+    /**
+     * Obtém o tempo, em segundos, até que a chave que rejeitou a tentativa volte a aceitar uma nova.
+     *
+     * @param decision Decisão da tentativa rejeitada
+     * @param username Nome de usuário
+     * @param clientIp IP do cliente
+     * @return Tempo em segundos
+     */
+    public long getRetryAfterSeconds(Decision decision, String username, String clientIp) {
+        long retryAfterMs = decision == Decision.IP_LIMITED
+                ? ipCounter.retryAfterMs(clientIp != null ? clientIp : "")
+                : usernameCounter.retryAfterMs(username != null ? username : "");
+        return Math.max(1, (retryAfterMs + 999) / 1000);
+    }
+
+    /**
+     * Obtém as estatísticas do limitador.
+     *
+     * @return Estatísticas
+     */
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "enabled", enabled,
+                "allowed", allowed.get(),
+                "rejectedByUsername", rejectedByUsername.get(),
+                "rejectedByIp", rejectedByIp.get(),
+                "trackedUsernames", usernameCounter.size(),
+                "trackedIps", ipCounter.size());
+    }
+
+    /**
+     * Contador de janela deslizante aproximada por chave, com os mapas particionados por hash.
+     */
+    private static final class SlidingWindowCounter {
+
+        private static final class Window {
+            long start;
+            int current;
+            int previous;
+        }
+
+        private final Map<String, Window>[] maps;
+
+        private final Object[] locks;
+
+        private final int maxAttempts;
+
+        private final long windowMs;
+
+        private final int maxKeysPerStripe;
+
+        @SuppressWarnings("unchecked")
+        SlidingWindowCounter(int stripes, int maxAttempts, long windowMs, int maxKeys) {
+            this.maps = new Map[stripes];
+            this.locks = new Object[stripes];
+            for (int i = 0; i < stripes; i++) {
+                maps[i] = new HashMap<>();
+                locks[i] = new Object();
+            }
+            this.maxAttempts = maxAttempts;
+            this.windowMs = windowMs;
+            this.maxKeysPerStripe = Math.max(1, maxKeys / stripes);
+        }
+
+        boolean tryAcquire(String key) {
+            int stripe = stripeOf(key);
+            long now = System.currentTimeMillis();
+            synchronized (locks[stripe]) {
+                Map<String, Window> map = maps[stripe];
+                Window window = map.get(key);
+                if (window == null) {
+                    if (map.size() >= maxKeysPerStripe) {
+                        purgeExpired(map, now);
+                    }
+                    window = new Window();
+                    window.start = now;
+                    map.put(key, window);
+                }
+                roll(window, now);
+
+                double elapsed = (double) (now - window.start) / windowMs;
+                double estimate = window.previous * (1.0 - elapsed) + window.current;
+                if (estimate >= maxAttempts) {
+                    return false;
+                }
+                window.current++;
+                return true;
+            }
+        }
+
+        /**
+         * Calcula o tempo até que a estimativa da chave fique abaixo do limite.
+         * Na janela atual, o peso da anterior diminui linearmente; se a própria janela atual já
+         * atingiu o limite, é preciso esperar a próxima, em que ela passa a ser a anterior.
+         */
+        long retryAfterMs(String key) {
+            int stripe = stripeOf(key);
+            long now = System.currentTimeMillis();
+            synchronized (locks[stripe]) {
+                Window window = maps[stripe].get(key);
+                if (window == null) {
+                    return 0;
+                }
+                roll(window, now);
+
+                long retryAt;
+                if (window.current < maxAttempts) {
+                    if (window.previous == 0) {
+                        return 0;
+                    }
+                    double elapsed = 1.0 - (double) (maxAttempts - window.current) / window.previous;
+                    retryAt = window.start + (long) Math.ceil(elapsed * windowMs);
+                } else {
+                    double elapsed = 1.0 - (double) maxAttempts / window.current;
+                    retryAt = window.start + windowMs + (long) Math.ceil(elapsed * windowMs);
+                }
+                return Math.max(0, retryAt + 1 - now);
+            }
+        }
+
+        void reset(String key) {
+            int stripe = stripeOf(key);
+            synchronized (locks[stripe]) {
+                maps[stripe].remove(key);
+            }
+        }
+
+        int size() {
+            int size = 0;
+            for (int i = 0; i < maps.length; i++) {
+                synchronized (locks[i]) {
+                    size += maps[i].size();
+                }
+            }
+            return size;
+        }
+
+        private void roll(Window window, long now) {
+            long elapsedWindows = (now - window.start) / windowMs;
+            if (elapsedWindows == 1) {
+                window.previous = window.current;
+                window.current = 0;
+                window.start += windowMs;
+            } else if (elapsedWindows > 1) {
+                window.previous = 0;
+                window.current = 0;
+                window.start = now;
+            }
+        }
+
+        private void purgeExpired(Map<String, Window> map, long now) {
+            Iterator<Window> iterator = map.values().iterator();
+            while (iterator.hasNext()) {
+                if (now - iterator.next().start >= 2 * windowMs) {
+                    iterator.remove();
+                }
+            }
+            // Sob ataque distribuído, descarta chaves arbitrárias para manter a memória limitada
+            iterator = map.values().iterator();
+            while (map.size() >= maxKeysPerStripe && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+
+        private int stripeOf(String key) {
+            int hash = key.hashCode();
+            return ((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % maps.length;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.sparkwave.login.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fila de envio de e-mails. As mensagens são enfileiradas pela thread da requisição e enviadas
+ * em lotes por uma thread dedicada, reaproveitando a mesma conexão SMTP para todo o lote.
+ * Falhas são reenviadas com espera exponencial até o limite de tentativas.
+ */
+@Component
+public class MailDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(MailDispatcher.class);
+
+    /**
+     * Notificação do resultado final do envio de uma mensagem.
+     */
+    @FunctionalInterface
+    public interface DeliveryCallback {
+
+        /**
+         * @param delivered true se a mensagem foi aceita pelo servidor SMTP, false se foi abandonada
+         */
+        void completed(boolean delivered);
+    }
+
+    /**
+     * Mensagem a ser enviada.
+     *
+     * @param to Destinatário
+     * @param subject Assunto
+     * @param text Conteúdo
+     * @param html true se o conteúdo for HTML
+     * @param attempts Quantidade de tentativas já realizadas
+     * @param callback Notificação do resultado (opcional)
+     */
+    public record OutboundMail(String to, String subject, String text, boolean html, int attempts,
+                               DeliveryCallback callback) {
+
+        public OutboundMail(String to, String subject, String text, boolean html, DeliveryCallback callback) {
+            this(to, subject, text, html, 0, callback);
+        }
+
+        OutboundMail nextAttempt() {
+            return new OutboundMail(to, subject, text, html, attempts + 1, callback);
+        }
+
+        void complete(boolean delivered) {
+            if (callback == null) {
+                return;
+            }
+            try {
+                callback.completed(delivered);
+            } catch (Exception e) {
+                logger.error("Erro ao notificar o resultado do envio para: {}", to, e);
+            }
+        }
+    }
+
+    @Autowired(required = false)
+    private JavaMailSender mailSender;
+
+    @Value("${spring.mail.username:noreply@sparkwave.com}")
+    private String fromEmail;
+
+    @Value("${sparkwave.app.mail.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${sparkwave.app.mail.batch-size:20}")
+    private int batchSize;
+
+    @Value("${sparkwave.app.mail.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${sparkwave.app.mail.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${sparkwave.app.mail.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    private BlockingQueue<OutboundMail> queue;
+
+    private ScheduledExecutorService retryScheduler;
+
+    private Thread sender;
+
+    private volatile boolean running;
+
+    private final AtomicLong sent = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    private final AtomicLong retried = new AtomicLong();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    private final AtomicLong sendNanos = new AtomicLong();
+
+    private final AtomicLong batches = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mail-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        sender = new Thread(this::run, "mail-sender");
+        sender.setDaemon(true);
+        sender.start();
+    }
+
+    /**
+     * Encerra o envio, tentando esvaziar a fila dentro do tempo limite.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        retryScheduler.shutdownNow();
+        sender.join(shutdownTimeoutMs);
+        if (sender.isAlive()) {
+            logger.warn("Fila de e-mails encerrada com {} mensagens pendentes", queue.size());
+            sender.interrupt();
+        }
+    }
+
+    /**
+     * Enfileira uma mensagem para envio.
+     *
+     * @param mail Mensagem
+     * @return true se a mensagem foi enfileirada, false se a fila estiver cheia
+     */
+    public boolean submit(OutboundMail mail) {
+        if (queue.offer(mail)) {
+            return true;
+        }
+        rejected.incrementAndGet();
+        logger.warn("Fila de e-mails cheia, mensagem descartada: Para: {}, Assunto: {}", mail.to(), mail.subject());
+        return false;
+    }
+
+    /**
+     * Laço da thread de envio: aguarda a primeira mensagem e agrupa as demais já disponíveis.
+     */
+    private void run() {
+        List<OutboundMail> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                OutboundMail first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                send(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Erro inesperado no envio de e-mails", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Envia um lote em uma única conexão SMTP e reagenda as mensagens que falharam.
+     */
+    private void send(List<OutboundMail> batch) {
+        Map<MimeMessage, OutboundMail> messages = new IdentityHashMap<>();
+        for (OutboundMail mail : batch) {
+            try {
+                messages.put(toMimeMessage(mail), mail);
+            } catch (MessagingException e) {
+                failed.incrementAndGet();
+                logger.error("Erro ao montar e-mail para: {}", mail.to(), e);
+                mail.complete(false);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            sent.addAndGet(messages.size());
+            messages.values().forEach(mail -> mail.complete(true));
+        } catch (MailSendException e) {
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            if (failedMessages.isEmpty()) {
+                messages.values().forEach(mail -> retry(mail, e));
+            } else {
+                sent.addAndGet(messages.size() - failedMessages.size());
+                messages.forEach((message, mail) -> {
+                    Exception error = failedMessages.get(message);
+                    if (error == null) {
+                        mail.complete(true);
+                    } else {
+                        retry(mail, error);
+                    }
+                });
+            }
+        } catch (Exception e) {
+            messages.values().forEach(mail -> retry(mail, e));
+        } finally {
+            sendNanos.addAndGet(System.nanoTime() - startTime);
+            batches.incrementAndGet();
+        }
+    }
+
+    private void retry(OutboundMail mail, Exception error) {
+        OutboundMail next = mail.nextAttempt();
+        if (next.attempts() >= maxAttempts || !running) {
+            failed.incrementAndGet();
+            logger.error("Erro ao enviar e-mail para: {} após {} tentativas", mail.to(), next.attempts(), error);
+            mail.complete(false);
+            return;
+        }
+
+        retried.incrementAndGet();
+        long backoff = initialBackoffMs << Math.min(next.attempts() - 1, 16);
+        logger.warn("Falha ao enviar e-mail para: {}, nova tentativa em {} ms", mail.to(), backoff);
+        retryScheduler.schedule(() -> {
+            if (!submit(next)) {
+                next.complete(false);
+            }
+        }, backoff, TimeUnit.MILLISECONDS);
+    }
+
+    private MimeMessage toMimeMessage(OutboundMail mail) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, mail.html(), "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(mail.to());
+        helper.setSubject(mail.subject());
+        helper.setText(mail.text(), mail.html());
+        return message;
+    }
+
+    /**
+     * Obtém as estatísticas da fila de envio.
+     *
+     * @return Estatísticas
+     */
+    public Map<String, Object> getStats() {
+        long batchCount = batches.get();
+        return Map.of(
+                "queueDepth", queue.size(),
+                "queueCapacity", queueCapacity,
+                "sent", sent.get(),
+                "failed", failed.get(),
+                "retried", retried.get(),
+                "rejected", rejected.get(),
+                "avgBatchSendMs", batchCount > 0 ? sendNanos.get() / batchCount / 1_000_000.0 : 0.0);
+    }
+}
@@ -0,0 +1,71 @@
+package com.sparkwave.login.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Template de texto simples compilado. O texto é analisado uma única vez em trechos fixos e
+ * variáveis no formato {@code {nome}}, e cada renderização apenas concatena os trechos.
+ * Instâncias são imutáveis e podem ser compartilhadas entre threads.
+ */
+public final class MailTemplate {
+
+    private final String[] literals;
+
+    private final String[] variables;
+
+    private final int literalLength;
+
+    private MailTemplate(String[] literals, String[] variables) {
+        this.literals = literals;
+        this.variables = variables;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Compila um template.
+     *
+     * @param source Texto com variáveis no formato {@code {nome}}
+     * @return Template compilado
+     * @throws IllegalArgumentException se houver uma variável sem fechamento
+     */
+    public static MailTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = source.indexOf('{', position);
+            if (open < 0) {
+                literals.add(source.substring(position));
+                break;
+            }
+            int close = source.indexOf('}', open + 1);
+            if (close < 0) {
+                throw new IllegalArgumentException("Variável sem fechamento na posição " + open);
+            }
+            literals.add(source.substring(position, open));
+            variables.add(source.substring(open + 1, close));
+            position = close + 1;
+        }
+        return new MailTemplate(literals.toArray(new String[0]), variables.toArray(new String[0]));
+    }
+
+    /**
+     * Renderiza o template. Variáveis ausentes são renderizadas como {@code null}.
+     *
+     * @param values Valores das variáveis
+     * @return Texto renderizado
+     */
+    public String render(Map<String, ?> values) {
+        StringBuilder builder = new StringBuilder(literalLength + variables.length * 16);
+        for (int i = 0; i < variables.length; i++) {
+            builder.append(literals[i]).append(values.get(variables[i]));
+        }
+        return builder.append(literals[variables.length]).toString();
+    }
+}
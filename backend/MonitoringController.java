@@ -0,0 +1,70 @@
+package com.sparkwave.login.controller;
+
+import com.sparkwave.login.security.LoginAttemptLimiter;
+import com.sparkwave.login.security.PasswordHashingExecutor;
+import com.sparkwave.login.security.PrincipalCache;
+import com.sparkwave.login.security.TokenRevocationIndex;
+import com.sparkwave.login.security.VerifiedTokenCache;
+import com.sparkwave.login.service.AccessLogWriter;
+import com.sparkwave.login.service.EmailOutboxRelay;
+import com.sparkwave.login.service.MailDispatcher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Controlador para métricas internas de monitoramento.
+ */
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/admin/monitoring")
+@PreAuthorize("hasRole('ADMIN')")
+public class MonitoringController {
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenRevocationIndex tokenRevocationIndex;
+
+    @Autowired
+    private AccessLogWriter accessLogWriter;
+
+    @Autowired
+    private LoginAttemptLimiter loginAttemptLimiter;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private MailDispatcher mailDispatcher;
+
+    @Autowired
+    private EmailOutboxRelay emailOutboxRelay;
+
+    /**
+     * Obtém as métricas de monitoramento.
+     *
+     * @return Métricas
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("verifiedTokenCache", verifiedTokenCache.getStats());
+        metrics.put("principalCache", principalCache.getStats());
+        metrics.put("tokenRevocation", tokenRevocationIndex.getStats());
+        metrics.put("accessLogWriter", accessLogWriter.getStats());
+        metrics.put("loginAttemptLimiter", loginAttemptLimiter.getStats());
+        metrics.put("passwordHashing", passwordHashingExecutor.getStats());
+        metrics.put("mailDispatcher", mailDispatcher.getStats());
+        metrics.put("emailOutbox", emailOutboxRelay.getStats());
+        return ResponseEntity.ok(metrics);
+    }
+}
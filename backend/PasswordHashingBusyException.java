@@ -0,0 +1,21 @@
+package com.sparkwave.login.security;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando o executor de hashing de senhas está saturado e a operação
+ * é recusada em vez de aguardar.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PasswordHashingBusyException extends AuthenticationServiceException {
+
+    public PasswordHashingBusyException(String msg) {
+        super(msg);
+    }
+
+    public PasswordHashingBusyException(String msg, Throwable cause) {
+        super(msg, cause);
+    }
+}
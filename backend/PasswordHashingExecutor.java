@@ -0,0 +1,158 @@
+package com.sparkwave.login.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executor dedicado ao hashing de senhas (BCrypt), com um thread por núcleo e fila limitada.
+ * Isola o custo de CPU das verificações de senha para que um pico de logins não ocupe as
+ * threads do Tomcat usadas pelas demais rotas. Quando a fila está cheia, as operações
+ * interativas falham imediatamente com {@link PasswordHashingBusyException}.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    @Value("${sparkwave.app.password-hashing.threads:0}")
+    private int threads;
+
+    @Value("${sparkwave.app.password-hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${sparkwave.app.password-hashing.wait-timeout-ms:5000}")
+    private long waitTimeoutMs;
+
+    private ThreadPoolExecutor executor;
+
+    private Semaphore backgroundPermits;
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    private final AtomicLong timedOut = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        // Trabalho em lote ocupa no máximo um lugar na fila por thread, deixando o restante para logins
+        backgroundPermits = new Semaphore(poolSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Executa uma operação interativa e aguarda o resultado.
+     *
+     * @param task Operação
+     * @return Resultado da operação
+     * @throws PasswordHashingBusyException se a fila estiver cheia ou o tempo de espera esgotar
+     */
+    public <T> T call(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new PasswordHashingBusyException("Serviço de autenticação sobrecarregado", e);
+        }
+
+        try {
+            return future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            timedOut.incrementAndGet();
+            throw new PasswordHashingBusyException("Tempo de espera do serviço de autenticação esgotado", e);
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException("Operação de senha interrompida", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Agenda uma operação de lote (por exemplo, a importação de usuários). O chamador aguarda
+     * enquanto houver operações de lote demais em andamento e, se a fila estiver ocupada por
+     * logins, executa a operação na própria thread em vez de falhar.
+     *
+     * @param task Operação
+     * @return Resultado futuro da operação
+     * @throws InterruptedException se a thread for interrompida enquanto aguarda
+     */
+    public <T> Future<T> submitBackground(Callable<T> task) throws InterruptedException {
+        backgroundPermits.acquire();
+        FutureTask<T> future = new FutureTask<>(() -> {
+            try {
+                return task.call();
+            } finally {
+                backgroundPermits.release();
+            }
+        });
+        try {
+            executor.execute(future);
+        } catch (RejectedExecutionException e) {
+            future.run();
+        }
+        return future;
+    }
+
+    /**
+     * Indica se há uma thread ociosa e nenhuma operação aguardando na fila, ou seja, se uma
+     * operação opcional pode ser executada sem atrasar os logins.
+     *
+     * @return true se houver capacidade livre
+     */
+    public boolean hasIdleCapacity() {
+        return executor.getQueue().isEmpty() && executor.getActiveCount() < executor.getMaximumPoolSize();
+    }
+
+    /**
+     * Obtém as estatísticas do executor.
+     *
+     * @return Estatísticas
+     */
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "poolSize", executor.getMaximumPoolSize(),
+                "active", executor.getActiveCount(),
+                "queued", executor.getQueue().size(),
+                "queueCapacity", queueCapacity,
+                "completed", executor.getCompletedTaskCount(),
+                "rejected", rejected.get(),
+                "timedOut", timedOut.get());
+    }
+}
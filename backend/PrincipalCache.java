@@ -0,0 +1,95 @@
+package com.sparkwave.login.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache dos dados de autenticação dos usuários, evitando consultas ao banco a cada requisição.
+ * Guarda apenas um snapshot imutável; cada leitura gera um novo {@link SparkwaveUserDetails}, pois o
+ * gerenciador de autenticação apaga as credenciais do objeto retornado após o login.
+ */
+@Component
+public class PrincipalCache {
+
+    private final ExpiringCache<String, CachedPrincipal> cache;
+
+    private final long ttlMs;
+
+    public PrincipalCache(@Value("${sparkwave.app.principal-cache.max-size:10000}") int maxSize,
+                          @Value("${sparkwave.app.principal-cache.ttl-ms:300000}") long ttlMs) {
+        this.cache = new ExpiringCache<>(maxSize);
+        this.ttlMs = ttlMs;
+    }
+
+    /**
+     * Obtém os dados de um usuário armazenados no cache.
+     *
+     * @param username Nome de usuário
+     * @return Dados do usuário, ou null se o usuário não estiver no cache
+     */
+    public SparkwaveUserDetails get(String username) {
+        CachedPrincipal principal = cache.get(username);
+        return principal != null ? principal.toUserDetails() : null;
+    }
+
+    /**
+     * Armazena os dados de um usuário no cache.
+     *
+     * @param userDetails Dados do usuário
+     */
+    public void put(SparkwaveUserDetails userDetails) {
+        CachedPrincipal principal = new CachedPrincipal(
+                userDetails.getId(),
+                userDetails.getUsername(),
+                userDetails.getEmail(),
+                userDetails.getPassword(),
+                userDetails.isEnabled(),
+                userDetails.getTokenVersion(),
+                List.copyOf(userDetails.getAuthorities()));
+        cache.put(userDetails.getUsername(), principal, System.currentTimeMillis() + ttlMs);
+    }
+
+    /**
+     * Remove um usuário do cache. Se houver uma transação ativa, a remoção é repetida após o
+     * commit para que uma leitura concorrente não recoloque dados antigos no cache.
+     *
+     * @param username Nome de usuário
+     */
+    public void evict(String username) {
+        if (username == null) {
+            return;
+        }
+        cache.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(username);
+                }
+            });
+        }
+    }
+
+    /**
+     * Obtém as estatísticas do cache.
+     *
+     * @return Estatísticas
+     */
+    public Map<String, Object> getStats() {
+        return cache.getStats();
+    }
+
+    private record CachedPrincipal(Long id, String username, String email, String password, boolean enabled,
+                                   int tokenVersion, List<GrantedAuthority> authorities) {
+
+        SparkwaveUserDetails toUserDetails() {
+            return new SparkwaveUserDetails(id, username, email, password, enabled, tokenVersion, authorities);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.sparkwave.login.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidade que representa um refresh token emitido no login.
+ * Apenas o hash SHA-256 do token é gravado; tokens rotacionados permanecem marcados como
+ * revogados até expirarem, para que o reuso de um token antigo seja detectado. O instante da
+ * rotação distingue uma renovação concorrente legítima (outra aba) de um reuso.
+ */
+@Entity
+@Table(name = "refresh_tokens",
+       indexes = {
+           @Index(name = "idx_refresh_tokens_user_id", columnList = "user_id"),
+           @Index(name = "idx_refresh_tokens_expires_at", columnList = "expires_at")
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refresh_tokens_seq")
+    @SequenceGenerator(name = "refresh_tokens_seq", sequenceName = "refresh_tokens_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false)
+    private boolean revoked;
+
+    /**
+     * Instante em que o token foi trocado por um sucessor; nulo se nunca foi rotacionado
+     * ou se foi revogado por logout ou pelo administrador.
+     */
+    @Column(name = "rotated_at")
+    private LocalDateTime rotatedAt;
+}
@@ -0,0 +1,62 @@
+package com.sparkwave.login.repository;
+
+import com.sparkwave.login.model.RefreshToken;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repositório para os refresh tokens.
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    /**
+     * Busca e bloqueia um refresh token pelo hash, para que duas rotações concorrentes
+     * do mesmo token não emitam dois sucessores.
+     *
+     * @param tokenHash Hash SHA-256 do token
+     * @return Optional contendo o token, se encontrado
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Revoga todos os refresh tokens ativos de um usuário, inclusive os recém-rotacionados
+     * que ainda estariam no período de tolerância.
+     *
+     * @param userId ID do usuário
+     * @return Quantidade de tokens revogados
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revoked = true, t.rotatedAt = null " +
+            "WHERE t.userId = :userId AND (t.revoked = false OR t.rotatedAt IS NOT NULL)")
+    int revokeAllByUserId(@Param("userId") Long userId);
+
+    /**
+     * Remove todos os refresh tokens de um usuário.
+     *
+     * @param userId ID do usuário
+     * @return Quantidade de tokens removidos
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    /**
+     * Remove os refresh tokens expirados antes de uma data.
+     *
+     * @param cutoff Data limite
+     * @return Quantidade de tokens removidos
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :cutoff")
+    int deleteExpired(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,244 @@
+package com.sparkwave.login.service;
+
+import com.sparkwave.login.model.RefreshToken;
+import com.sparkwave.login.repository.RefreshTokenRepository;
+import com.sparkwave.login.repository.UserRepository;
+import com.sparkwave.login.security.TokenRevocationIndex;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serviço para emissão, rotação e revogação de refresh tokens.
+ * Cada renovação revoga o token usado e emite um sucessor, derivado do token usado por um HMAC.
+ * Um token rotacionado há menos que o período de tolerância ainda é aceito, pois abas do mesmo
+ * navegador compartilham o token e podem renová-lo ao mesmo tempo: a renovação repetida devolve
+ * o mesmo sucessor, enquanto ele não tiver sido usado. Fora disso, a apresentação de um token já
+ * rotacionado indica que ele foi copiado, e todas as sessões do usuário são encerradas.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final int TOKEN_BYTES = 32;
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    /**
+     * Resultado de uma rotação bem-sucedida.
+     *
+     * @param userId ID do usuário dono do token
+     * @param refreshToken Novo refresh token
+     */
+    public record Rotation(Long userId, String refreshToken) {
+    }
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TokenRevocationIndex tokenRevocationIndex;
+
+    @Value("${jwt.refresh-expiration:2592000000}")
+    private long refreshExpirationMs;
+
+    @Value("${jwt.refresh-reuse-grace-ms:30000}")
+    private long reuseGraceMs;
+
+    @Value("${jwt.refresh-cleanup-interval-ms:3600000}")
+    private long cleanupIntervalMs;
+
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    private SecretKeySpec successorKey;
+
+    private final AtomicLong nextCleanup = new AtomicLong();
+
+    @PostConstruct
+    public void init() throws NoSuchAlgorithmException {
+        byte[] keyBytes = MessageDigest.getInstance("SHA-256")
+                .digest(("refresh-successor:" + jwtSecret).getBytes(StandardCharsets.UTF_8));
+        successorKey = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+    }
+
+    /**
+     * Emite um refresh token para um usuário.
+     *
+     * @param userId ID do usuário
+     * @return Refresh token, que é gravado apenas como hash
+     */
+    @Transactional
+    public String issue(Long userId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        store(userId, token);
+        return token;
+    }
+
+    /**
+     * Grava o hash de um refresh token.
+     */
+    private void store(Long userId, String token) {
+        removeExpiredIfDue();
+
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hash(token));
+        refreshToken.setUserId(userId);
+        refreshToken.setCreatedAt(now);
+        refreshToken.setExpiresAt(now.plusNanos(refreshExpirationMs * 1_000_000));
+        refreshTokenRepository.save(refreshToken);
+    }
+
+    /**
+     * Troca um refresh token válido por um novo.
+     *
+     * @param token Refresh token apresentado
+     * @return Rotação realizada, ou vazio se o token for desconhecido, expirado ou já usado
+     */
+    @Transactional
+    public Optional<Rotation> rotate(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+
+        Optional<RefreshToken> stored = refreshTokenRepository.findByTokenHash(hash(token));
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+
+        RefreshToken current = stored.get();
+        LocalDateTime now = LocalDateTime.now();
+        if (current.isRevoked() && current.getRotatedAt() != null
+                && current.getRotatedAt().isAfter(now.minusNanos(reuseGraceMs * 1_000_000))
+                && current.getExpiresAt().isAfter(now)) {
+            // Renovação concorrente do mesmo token (por exemplo, outra aba): devolve o mesmo
+            // sucessor, se ele ainda não tiver sido usado
+            String successor = successorOf(token);
+            Optional<RefreshToken> issued = refreshTokenRepository.findByTokenHash(hash(successor));
+            if (issued.isPresent() && !issued.get().isRevoked()
+                    && issued.get().getUserId().equals(current.getUserId())) {
+                return Optional.of(new Rotation(current.getUserId(), successor));
+            }
+        }
+        if (current.isRevoked()) {
+            // Reuso de um token já rotacionado: encerra todas as sessões do usuário
+            logger.warn("Refresh token reutilizado para o usuário {}; sessões revogadas", current.getUserId());
+            refreshTokenRepository.revokeAllByUserId(current.getUserId());
+            userRepository.findById(current.getUserId())
+                    .ifPresent(user -> tokenRevocationIndex.revokeUser(user.getUsername()));
+            return Optional.empty();
+        }
+        if (current.getExpiresAt().isBefore(now)) {
+            return Optional.empty();
+        }
+
+        current.setRevoked(true);
+        current.setRotatedAt(now);
+        String successor = successorOf(token);
+        store(current.getUserId(), successor);
+        return Optional.of(new Rotation(current.getUserId(), successor));
+    }
+
+    /**
+     * Revoga um refresh token, se existir.
+     *
+     * @param token Refresh token
+     */
+    @Transactional
+    public void revoke(String token) {
+        if (token == null || token.isBlank()) {
+            return;
+        }
+        refreshTokenRepository.findByTokenHash(hash(token))
+                .ifPresent(refreshToken -> {
+                    refreshToken.setRevoked(true);
+                    refreshToken.setRotatedAt(null);
+                });
+    }
+
+    /**
+     * Revoga todos os refresh tokens de um usuário.
+     *
+     * @param userId ID do usuário
+     */
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        refreshTokenRepository.revokeAllByUserId(userId);
+    }
+
+    /**
+     * Remove todos os refresh tokens de um usuário.
+     *
+     * @param userId ID do usuário
+     */
+    @Transactional
+    public void deleteAllForUser(Long userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    /**
+     * Remove os tokens expirados no máximo uma vez por intervalo de limpeza,
+     * aproveitando a transação de uma emissão.
+     */
+    private void removeExpiredIfDue() {
+        long now = System.currentTimeMillis();
+        long scheduled = nextCleanup.get();
+        if (now < scheduled || !nextCleanup.compareAndSet(scheduled, now + cleanupIntervalMs)) {
+            return;
+        }
+        int removed = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (removed > 0) {
+            logger.info("{} refresh tokens expirados removidos", removed);
+        }
+    }
+
+    /**
+     * Deriva o sucessor de um token. Apenas quem apresenta o token consegue calculá-lo, e o
+     * banco guarda somente os hashes de ambos.
+     */
+    private String successorOf(String token) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(successorKey);
+            byte[] bytes = mac.doFinal(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC indisponível", e);
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.sparkwave.login.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal autenticado da aplicação. Além dos dados do {@link User} do Spring Security,
+ * carrega o ID, o email e a versão de token do usuário, para que o login, a geração do token
+ * e o registro de acesso não precisem consultar o usuário novamente.
+ */
+public class SparkwaveUserDetails extends User {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final Long id;
+
+    private final String email;
+
+    private final int tokenVersion;
+
+    public SparkwaveUserDetails(Long id, String username, String email, String password, boolean enabled,
+                                int tokenVersion, Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, enabled, true, true, true, authorities);
+        this.id = id;
+        this.email = email;
+        this.tokenVersion = tokenVersion;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    /**
+     * Obtém os perfis do usuário sem o prefixo ROLE_.
+     *
+     * @return Perfis
+     */
+    public List<String> getRoles() {
+        return getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .map(authority -> authority.startsWith(ROLE_PREFIX) ? authority.substring(ROLE_PREFIX.length()) : authority)
+                .toList();
+    }
+}
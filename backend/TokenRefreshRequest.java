@@ -0,0 +1,11 @@
+package com.sparkwave.login.model;
+
+import lombok.Data;
+
+/**
+ * DTO para a requisição de renovação do token de acesso.
+ */
+@Data
+public class TokenRefreshRequest {
+    private String refreshToken;
+}
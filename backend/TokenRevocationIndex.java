@@ -0,0 +1,286 @@
+package com.sparkwave.login.security;
+
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Índice em memória de tokens de acesso revogados, consultado a cada requisição autenticada.
+ * Um filtro de Bloom responde sem alocação para a grande maioria dos tokens, que nunca foram
+ * revogados; apenas quando o filtro indica uma possível revogação o mapa exato é consultado.
+ * Revogações podem ser de um token (pelo ID do token) ou de todos os tokens de um usuário
+ * emitidos até o momento da revogação. Cada entrada é mantida apenas enquanto os tokens
+ * afetados ainda puderem ser válidos, e o filtro é reconstruído periodicamente sem as entradas expiradas.
+ */
+@Component
+public class TokenRevocationIndex {
+
+    private static final char TOKEN_TAG = 'T';
+
+    private static final char USER_TAG = 'U';
+
+    /**
+     * Revogação registrada no índice.
+     *
+     * @param revokedAt Momento da revogação, em milissegundos
+     * @param expiresAt Momento a partir do qual a entrada pode ser descartada, em milissegundos
+     */
+    private record Entry(long revokedAt, long expiresAt) {
+    }
+
+    @Value("${jwt.expiration}")
+    private long accessTokenTtlMs;
+
+    @Value("${jwt.revocation.expected-entries:10000}")
+    private int expectedEntries;
+
+    @Value("${jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${jwt.revocation.purge-interval-ms:60000}")
+    private long purgeIntervalMs;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter filter;
+
+    private long nextPurge;
+
+    private final AtomicLong checks = new AtomicLong();
+
+    private final AtomicLong filterNegatives = new AtomicLong();
+
+    private final AtomicLong revokedHits = new AtomicLong();
+
+    private final AtomicLong falsePositives = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        filter = new BloomFilter(expectedEntries, falsePositiveRate);
+        nextPurge = System.currentTimeMillis() + purgeIntervalMs;
+    }
+
+    /**
+     * Revoga um token de acesso até a sua expiração.
+     *
+     * @param tokenId ID do token (claim jti)
+     * @param expiration Expiração do token
+     */
+    public void revokeToken(String tokenId, Date expiration) {
+        if (tokenId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long expiresAt = expiration != null ? expiration.getTime() : now + accessTokenTtlMs;
+        add(TOKEN_TAG, tokenId, new Entry(now, expiresAt), now);
+    }
+
+    /**
+     * Revoga todos os tokens de acesso de um usuário emitidos até agora. A entrada é mantida
+     * pela duração de um token de acesso, após a qual todos os tokens afetados já expiraram.
+     *
+     * @param username Nome de usuário
+     */
+    public void revokeUser(String username) {
+        if (username == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        add(USER_TAG, username, new Entry(now, now + accessTokenTtlMs), now);
+    }
+
+    /**
+     * Verifica se um token foi revogado.
+     *
+     * @param claims Claims do token
+     * @return true se o token foi revogado, false caso contrário
+     */
+    public boolean isRevoked(Claims claims) {
+        return isRevoked(claims.getId(), claims.getSubject(), claims.getIssuedAt());
+    }
+
+    /**
+     * Verifica se um token foi revogado, individualmente ou por uma revogação do usuário
+     * registrada no mesmo segundo ou após a sua emissão.
+     *
+     * @param tokenId ID do token
+     * @param username Nome de usuário
+     * @param issuedAt Data de emissão do token
+     * @return true se o token foi revogado, false caso contrário
+     */
+    public boolean isRevoked(String tokenId, String username, Date issuedAt) {
+        checks.incrementAndGet();
+        BloomFilter current = filter;
+        boolean maybeToken = tokenId != null && current.mightContain(TOKEN_TAG, tokenId);
+        boolean maybeUser = username != null && current.mightContain(USER_TAG, username);
+        if (!maybeToken && !maybeUser) {
+            filterNegatives.incrementAndGet();
+            return false;
+        }
+
+        long now = System.currentTimeMillis();
+        if (maybeToken) {
+            Entry entry = entries.get(key(TOKEN_TAG, tokenId));
+            if (entry != null && entry.expiresAt() > now) {
+                revokedHits.incrementAndGet();
+                return true;
+            }
+        }
+        if (maybeUser) {
+            Entry entry = entries.get(key(USER_TAG, username));
+            // O iat tem precisão de segundos; um token emitido no mesmo segundo da revogação é rejeitado
+            if (entry != null && entry.expiresAt() > now
+                    && (issuedAt == null || issuedAt.getTime() <= entry.revokedAt())) {
+                revokedHits.incrementAndGet();
+                return true;
+            }
+        }
+        falsePositives.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Registra uma entrada no mapa e no filtro. As escritas são serializadas para que uma
+     * reconstrução do filtro não perca entradas adicionadas durante a cópia.
+     */
+    private synchronized void add(char tag, String value, Entry entry, long now) {
+        entries.merge(key(tag, value), entry, (previous, next) -> new Entry(
+                Math.max(previous.revokedAt(), next.revokedAt()),
+                Math.max(previous.expiresAt(), next.expiresAt())));
+        filter.put(tag, value);
+
+        if (now >= nextPurge || entries.size() > filter.capacity()) {
+            purgeExpired(now);
+            nextPurge = now + purgeIntervalMs;
+        }
+    }
+
+    /**
+     * Remove as entradas expiradas e reconstrói o filtro com as restantes, dimensionado para
+     * manter a taxa de falsos positivos mesmo que a quantidade de revogações cresça.
+     */
+    private void purgeExpired(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiresAt() <= now) {
+                iterator.remove();
+            }
+        }
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, entries.size() * 2), falsePositiveRate);
+        for (String key : entries.keySet()) {
+            rebuilt.put(key.charAt(0), key.substring(1));
+        }
+        filter = rebuilt;
+    }
+
+    private static String key(char tag, String value) {
+        return tag + value;
+    }
+
+    /**
+     * Obtém as estatísticas do índice.
+     *
+     * @return Estatísticas
+     */
+    public Map<String, Object> getStats() {
+        BloomFilter current = filter;
+        return Map.of(
+                "entries", entries.size(),
+                "filterBits", current.bitCount(),
+                "filterHashes", current.hashCount(),
+                "filterCapacity", current.capacity(),
+                "checks", checks.get(),
+                "filterNegatives", filterNegatives.get(),
+                "revokedHits", revokedHits.get(),
+                "falsePositives", falsePositives.get());
+    }
+
+    /**
+     * Filtro de Bloom sobre um vetor de bits atômico, com as posições derivadas de um único
+     * hash de 64 bits (hashing duplo de Kirsch-Mitzenmacher).
+     */
+    private static final class BloomFilter {
+
+        private final AtomicLongArray words;
+
+        private final int bitCount;
+
+        private final int hashCount;
+
+        private final int capacity;
+
+        BloomFilter(int capacity, double falsePositiveRate) {
+            double ln2 = Math.log(2);
+            long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2));
+            bits = Math.max(64, Math.min(bits, 1L << 30));
+            int wordCount = (int) ((bits + 63) / 64);
+            this.words = new AtomicLongArray(wordCount);
+            this.bitCount = wordCount * 64;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * ln2));
+            this.capacity = capacity;
+        }
+
+        void put(char tag, String value) {
+            long hash = hash(tag, value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashCount; i++) {
+                int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+                long mask = 1L << bit;
+                words.getAndAccumulate(bit >>> 6, mask, (word, m) -> word | m);
+            }
+        }
+
+        boolean mightContain(char tag, String value) {
+            long hash = hash(tag, value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashCount; i++) {
+                int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int bitCount() {
+            return bitCount;
+        }
+
+        int hashCount() {
+            return hashCount;
+        }
+
+        int capacity() {
+            return capacity;
+        }
+
+        /**
+         * FNV-1a de 64 bits sobre o marcador e os caracteres do valor, seguido da
+         * finalização do MurmurHash3 para espalhar os bits.
+         */
+        private static long hash(char tag, String value) {
+            long hash = 0xcbf29ce484222325L;
+            hash = (hash ^ tag) * 0x100000001b3L;
+            for (int i = 0; i < value.length(); i++) {
+                hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9a64f2b5f0dL;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.sparkwave.login.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Registro em memória da versão de token mais recente conhecida para cada usuário.
+ * Tokens emitidos com uma versão anterior, ou de usuários sem versão registrada neste nó,
+ * são considerados desatualizados e exigem a consulta dos dados do usuário no banco.
+ * Cada versão expira após o TTL, para que alterações feitas em outros nós sejam percebidas.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    private final ExpiringCache<String, Integer> versions;
+
+    private final long ttlMs;
+
+    public TokenVersionRegistry(@Value("${jwt.token-version.max-size:10000}") int maxSize,
+                                @Value("${jwt.token-version.ttl-ms:300000}") long ttlMs) {
+        this.versions = new ExpiringCache<>(maxSize);
+        this.ttlMs = ttlMs;
+    }
+
+    /**
+     * Registra a versão de token atual de um usuário, lida do banco, renovando o seu TTL.
+     * Uma versão anterior à registrada é ignorada.
+     *
+     * @param username Nome de usuário
+     * @param version Versão do token
+     */
+    public synchronized void record(String username, int version) {
+        Integer current = versions.get(username);
+        if (current == null || version >= current) {
+            versions.put(username, version, System.currentTimeMillis() + ttlMs);
+        }
+    }
+
+    /**
+     * Registra a nova versão de token de um usuário após o commit da transação corrente, ou
+     * imediatamente se não houver transação ativa. Um rollback não deixa o registro à frente
+     * do banco, o que rejeitaria os tokens ainda válidos do usuário.
+     *
+     * @param username Nome de usuário
+     * @param version Versão do token
+     */
+    public void recordAfterCommit(String username, int version) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(username, version);
+                }
+            });
+        } else {
+            record(username, version);
+        }
+    }
+
+    /**
+     * Verifica se a versão de um token não pode ser confirmada pela versão conhecida do usuário.
+     *
+     * @param username Nome de usuário
+     * @param tokenVersion Versão presente no token
+     * @return true se o usuário não tiver versão registrada ou o token for anterior a ela
+     */
+    public boolean isStale(String username, int tokenVersion) {
+        Integer current = versions.get(username);
+        return current == null || tokenVersion < current;
+    }
+}
@@ -3,14 +3,24 @@ package com.sparkwave.login.controller;
 import com.sparkwave.login.model.MessageResponse;
 import com.sparkwave.login.model.User;
 import com.sparkwave.login.model.UserDTO;
+import com.sparkwave.login.model.UserImportResponse;
+import com.sparkwave.login.service.UserImportException;
+import com.sparkwave.login.service.UserImportService;
 import com.sparkwave.login.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 /**
  * Controlador para gerenciamento de usuários na área de administração.
@@ -24,18 +34,49 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserImportService userImportService;
+
+    @Value("${sparkwave.app.users.max-page-size:100}")
+    private int maxPageSize;
+
     /**
-     * Obtém todos os usuários.
+     * Obtém uma página de usuários, com filtros e ordenação.
      *
-     * @return Lista de usuários
+     * @param page Número da página (a partir de 0)
+     * @param size Tamanho da página
+     * @param sort Campo de ordenação (id, username, email, fullName ou active)
+     * @param direction Direção da ordenação (asc ou desc)
+     * @param active Status de ativação (opcional)
+     * @param role Perfil (opcional)
+     * @param search Prefixo do nome de usuário ou email (opcional)
+     * @return Página de usuários
      */
     @GetMapping
-    public ResponseEntity<List<UserDTO>> getAllUsers() {
-        List<User> users = userService.findAll();
-        List<UserDTO> userDTOs = users.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(userDTOs);
+    public ResponseEntity<?> getAllUsers(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "username") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) String search) {
+        Optional<Sort.Direction> sortDirection = Sort.Direction.fromOptionalString(direction);
+        if (sortDirection.isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Erro: Direção de ordenação inválida: " + direction));
+        }
+        if (!userService.isSortable(sort)) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Erro: Campo de ordenação inválido: " + sort));
+        }
+        
+        Sort order = Sort.by(sortDirection.get(), sort);
+        if (!"id".equals(sort)) {
+            order = order.and(Sort.by("id"));
+        }
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), maxPageSize), order);
+        return ResponseEntity.ok(userService.findPage(active, role, search, pageable));
     }
 
     /**
@@ -76,6 +117,31 @@ public class UserController {
         return ResponseEntity.ok(convertToDTO(user));
     }
 
+    /**
+     * Importa usuários em lote a partir de uma lista JSON.
+     *
+     * @param users Usuários a importar
+     * @return Resultado por linha
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<UserImportResponse> importUsers(@RequestBody List<UserDTO> users) {
+        return ResponseEntity.ok(userImportService.importUsers(users));
+    }
+
+    /**
+     * Importa usuários em lote a partir de um CSV com cabeçalho
+     * (username, email, password, fullName, active, roles).
+     *
+     * @param request Requisição com o CSV no corpo
+     * @return Resultado por linha
+     * @throws IOException Em caso de falha de leitura
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<UserImportResponse> importUsersCsv(HttpServletRequest request) throws IOException {
+        List<UserDTO> users = userImportService.parseCsv(request.getInputStream());
+        return ResponseEntity.ok(userImportService.importUsers(users));
+    }
+
     /**
      * Atualiza um usuário existente.
      *
@@ -144,6 +210,17 @@ public class UserController {
         return ResponseEntity.ok(new MessageResponse("Usuário excluído com sucesso!"));
     }
 
+    /**
+     * Trata importações recusadas por CSV inválido ou excesso de linhas.
+     *
+     * @param e Exceção
+     * @return Mensagem de erro
+     */
+    @ExceptionHandler(UserImportException.class)
+    public ResponseEntity<MessageResponse> handleInvalidImport(UserImportException e) {
+        return ResponseEntity.badRequest().body(new MessageResponse("Erro: " + e.getMessage()));
+    }
+
     /**
      * Converte uma entidade User para um DTO.
      *
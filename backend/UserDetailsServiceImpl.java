@@ -5,6 +5,7 @@ import com.sparkwave.login.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -14,39 +15,94 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 /**
- * Implementação do UserDetailsService para carregar os dados do usuário.
+ * Implementação do UserDetailsService para carregar os dados do usuário
+ * e atualizar hashes de senha desatualizados após o login.
  */
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
     /**
      * Carrega os dados do usuário pelo nome de usuário.
      *
      * @param username Nome de usuário
-     * @return UserDetails
+     * @return Dados do usuário
      * @throws UsernameNotFoundException Se o usuário não for encontrado
      */
     @Override
-    @Transactional
-    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+    public SparkwaveUserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        SparkwaveUserDetails cached = principalCache.get(username);
+        if (cached != null) {
+            return cached;
+        }
+
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + username));
 
+        return cache(user);
+    }
+
+    /**
+     * Carrega os dados do usuário pelo ID, consultando o banco. Usado na renovação do token
+     * de acesso, para que os perfis e o status do usuário sejam relidos.
+     *
+     * @param id ID do usuário
+     * @return Dados do usuário
+     * @throws UsernameNotFoundException Se o usuário não for encontrado
+     */
+    public SparkwaveUserDetails loadUserById(Long id) throws UsernameNotFoundException {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + id));
+        return cache(user);
+    }
+
+    /**
+     * Converte o usuário em dados de autenticação e os mantém em cache.
+     */
+    private SparkwaveUserDetails cache(User user) {
         List<SimpleGrantedAuthority> authorities = user.getRoles().stream()
                 .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
                 .collect(Collectors.toList());
 
-        return new org.springframework.security.core.userdetails.User(
+        SparkwaveUserDetails userDetails = new SparkwaveUserDetails(
+                user.getId(),
                 user.getUsername(),
+                user.getEmail(),
                 user.getPassword(),
                 user.isActive(),
-                true,
-                true,
-                true,
+                user.getTokenVersion(),
                 authorities
         );
+        principalCache.put(userDetails);
+        tokenVersionRegistry.record(user.getUsername(), user.getTokenVersion());
+
+        return userDetails;
     }
-}
 
+    /**
+     * Grava o novo hash da senha de um usuário, gerado pelo provedor de autenticação após um
+     * login bem-sucedido com um hash desatualizado. A senha não muda, então os tokens emitidos
+     * continuam válidos.
+     *
+     * @param user Dados do usuário autenticado
+     * @param newPassword Novo hash da senha
+     * @return Dados do usuário com o novo hash
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePasswordByUsername(user.getUsername(), newPassword);
+        principalCache.evict(user.getUsername());
+
+        SparkwaveUserDetails principal = (SparkwaveUserDetails) user;
+        return new SparkwaveUserDetails(principal.getId(), principal.getUsername(), principal.getEmail(),
+                newPassword, principal.isEnabled(), principal.getTokenVersion(), principal.getAuthorities());
+    }
+}
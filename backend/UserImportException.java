@@ -0,0 +1,16 @@
+package com.sparkwave.login.service;
+
+/**
+ * Exceção lançada quando uma importação de usuários é recusada por completo, por um CSV
+ * inválido ou por exceder o limite de linhas.
+ */
+public class UserImportException extends RuntimeException {
+
+    public UserImportException(String msg) {
+        super(msg);
+    }
+
+    public UserImportException(String msg, Throwable cause) {
+        super(msg, cause);
+    }
+}
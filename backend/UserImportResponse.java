@@ -0,0 +1,21 @@
+package com.sparkwave.login.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para a resposta da importação de usuários em lote.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportResponse {
+    private int total;
+    private int created;
+    private int rejected;
+    private int failed;
+    private List<UserImportResult> results;
+}
@@ -0,0 +1,29 @@
+package com.sparkwave.login.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO com o resultado da importação de uma linha.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportResult {
+
+    /**
+     * Resultado da linha.
+     */
+    public enum Status {
+        CREATED,
+        REJECTED,
+        FAILED
+    }
+
+    private int row;
+    private String username;
+    private Status status;
+    private Long id;
+    private String message;
+}
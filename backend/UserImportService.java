@@ -0,0 +1,338 @@
+package com.sparkwave.login.service;
+
+import com.sparkwave.login.model.User;
+import com.sparkwave.login.model.UserDTO;
+import com.sparkwave.login.model.UserImportResponse;
+import com.sparkwave.login.model.UserImportResult;
+import com.sparkwave.login.repository.UserRepository;
+import com.sparkwave.login.security.BoundedPasswordEncoder;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Serviço para importação de usuários em lote. A unicidade é verificada com consultas por conjunto,
+ * as senhas são codificadas em paralelo no {@link com.sparkwave.login.security.PasswordHashingExecutor}
+ * e os usuários são gravados em lotes JDBC.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    private static final int IN_CLAUSE_CHUNK = 1000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${sparkwave.app.user-import.max-rows:10000}")
+    private int maxRows;
+
+    @Value("${sparkwave.app.user-import.batch-size:500}")
+    private int batchSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Lê usuários de um CSV com cabeçalho. Colunas reconhecidas: username, email, password,
+     * fullName, active e roles (perfis separados por ";").
+     *
+     * @param inputStream Conteúdo do CSV
+     * @return Linhas lidas
+     * @throws IOException Em caso de falha de leitura
+     * @throws UserImportException se o CSV for inválido ou exceder o limite de linhas
+     */
+    public List<UserDTO> parseCsv(InputStream inputStream) throws IOException {
+        CsvReader reader = new CsvReader(inputStream);
+        List<String> header = readRow(reader);
+        if (header == null) {
+            return List.of();
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("username", "email", "password")) {
+            if (!columns.containsKey(required)) {
+                throw new UserImportException("CSV inválido: coluna obrigatória ausente: " + required);
+            }
+        }
+
+        List<UserDTO> rows = new ArrayList<>();
+        List<String> fields;
+        while ((fields = readRow(reader)) != null) {
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            if (rows.size() == maxRows) {
+                throw new UserImportException("Importação limitada a " + maxRows + " linhas");
+            }
+
+            UserDTO dto = new UserDTO();
+            dto.setUsername(field(fields, columns, "username"));
+            dto.setEmail(field(fields, columns, "email"));
+            dto.setPassword(field(fields, columns, "password"));
+            dto.setFullName(field(fields, columns, "fullname"));
+            String active = field(fields, columns, "active");
+            dto.setActive(active == null || Boolean.parseBoolean(active));
+            String roles = field(fields, columns, "roles");
+            if (roles != null) {
+                dto.setRoles(Arrays.stream(roles.split(";"))
+                        .map(String::trim)
+                        .filter(role -> !role.isEmpty())
+                        .collect(Collectors.toSet()));
+            }
+            rows.add(dto);
+        }
+        return rows;
+    }
+
+    private static List<String> readRow(CsvReader reader) throws IOException {
+        try {
+            return reader.readRow();
+        } catch (IllegalArgumentException e) {
+            throw new UserImportException(e.getMessage(), e);
+        }
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Importa usuários em lote. Cada linha é validada individualmente; linhas válidas são gravadas
+     * em lotes de {@code batch-size} usuários, cada um em sua própria transação.
+     *
+     * @param rows Usuários a importar
+     * @return Resultado por linha
+     * @throws UserImportException se a quantidade de linhas exceder o limite
+     */
+    public UserImportResponse importUsers(List<UserDTO> rows) {
+        if (rows.size() > maxRows) {
+            throw new UserImportException("Importação limitada a " + maxRows + " linhas");
+        }
+
+        UserImportResult[] results = new UserImportResult[rows.size()];
+        List<Integer> accepted = validateRows(rows, results);
+
+        // Unicidade no banco, com uma consulta por bloco de valores
+        Set<String> takenUsernames = findExisting(accepted, rows, UserDTO::getUsername, userRepository::findExistingUsernames);
+        Set<String> takenEmails = findExisting(accepted, rows, UserDTO::getEmail, userRepository::findExistingEmails);
+        accepted.removeIf(index -> {
+            UserDTO dto = rows.get(index);
+            if (takenUsernames.contains(dto.getUsername())) {
+                results[index] = rejected(index, dto, "Nome de usuário já está em uso");
+                return true;
+            }
+            if (takenEmails.contains(dto.getEmail())) {
+                results[index] = rejected(index, dto, "Email já está em uso");
+                return true;
+            }
+            return false;
+        });
+
+        // Codificação das senhas em paralelo, no executor compartilhado de hashing
+        List<Future<String>> hashes = new ArrayList<>(accepted.size());
+        for (Integer index : accepted) {
+            try {
+                hashes.add(passwordEncoder.encodeInBackground(rows.get(index).getPassword()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Importação interrompida", e);
+            }
+        }
+
+        // Gravação em lotes
+        for (int start = 0; start < accepted.size(); start += batchSize) {
+            int end = Math.min(start + batchSize, accepted.size());
+            List<User> users = new ArrayList<>(end - start);
+            List<Integer> userRows = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                int index = accepted.get(i);
+                String hash = awaitHash(hashes.get(i), index, rows.get(index), results);
+                if (hash != null) {
+                    users.add(toUser(rows.get(index), hash));
+                    userRows.add(index);
+                }
+            }
+            saveChunk(users, userRows, rows, results);
+        }
+
+        UserImportResponse response = new UserImportResponse();
+        response.setTotal(rows.size());
+        response.setResults(Arrays.asList(results));
+        for (UserImportResult result : results) {
+            switch (result.getStatus()) {
+                case CREATED -> response.setCreated(response.getCreated() + 1);
+                case REJECTED -> response.setRejected(response.getRejected() + 1);
+                case FAILED -> response.setFailed(response.getFailed() + 1);
+            }
+        }
+        logger.info("Importação de usuários: {} linhas, {} criados, {} rejeitados, {} com falha",
+                response.getTotal(), response.getCreated(), response.getRejected(), response.getFailed());
+        return response;
+    }
+
+    /**
+     * Valida os campos de cada linha e rejeita nomes de usuário e emails repetidos no próprio lote.
+     *
+     * @return Índices das linhas válidas
+     */
+    private List<Integer> validateRows(List<UserDTO> rows, UserImportResult[] results) {
+        List<Integer> accepted = new ArrayList<>(rows.size());
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (int index = 0; index < rows.size(); index++) {
+            UserDTO dto = rows.get(index);
+            String error = null;
+            if (isBlank(dto.getUsername()) || dto.getUsername().length() > 50) {
+                error = "Nome de usuário obrigatório com até 50 caracteres";
+            } else if (isBlank(dto.getEmail()) || dto.getEmail().length() > 100) {
+                error = "Email obrigatório com até 100 caracteres";
+            } else if (isBlank(dto.getPassword())) {
+                error = "Senha obrigatória";
+            } else if (dto.getFullName() != null && dto.getFullName().length() > 100) {
+                error = "Nome completo deve ter até 100 caracteres";
+            } else if (!usernames.add(dto.getUsername())) {
+                error = "Nome de usuário repetido na importação";
+            } else if (!emails.add(dto.getEmail())) {
+                error = "Email repetido na importação";
+            }
+
+            if (error != null) {
+                results[index] = rejected(index, dto, error);
+            } else {
+                accepted.add(index);
+            }
+        }
+        return accepted;
+    }
+
+    private static Set<String> findExisting(List<Integer> accepted, List<UserDTO> rows,
+                                            Function<UserDTO, String> attribute,
+                                            Function<Collection<String>, List<String>> query) {
+        Set<String> existing = new HashSet<>();
+        for (int start = 0; start < accepted.size(); start += IN_CLAUSE_CHUNK) {
+            List<String> values = accepted.subList(start, Math.min(start + IN_CLAUSE_CHUNK, accepted.size()))
+                    .stream()
+                    .map(index -> attribute.apply(rows.get(index)))
+                    .toList();
+            existing.addAll(query.apply(values));
+        }
+        return existing;
+    }
+
+    private String awaitHash(Future<String> hash, int index, UserDTO dto, UserImportResult[] results) {
+        try {
+            return hash.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Importação interrompida", e);
+        } catch (ExecutionException e) {
+            logger.error("Erro ao codificar a senha da linha {}", index + 1, e.getCause());
+            results[index] = failed(index, dto, "Erro ao codificar a senha");
+            return null;
+        }
+    }
+
+    private void saveChunk(List<User> users, List<Integer> userRows, List<UserDTO> rows, UserImportResult[] results) {
+        if (users.isEmpty()) {
+            return;
+        }
+
+        Map<String, String> passwords = new HashMap<>();
+        for (int i = 0; i < users.size(); i++) {
+            passwords.put(users.get(i).getUsername(), rows.get(userRows.get(i)).getPassword());
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.saveAll(users);
+                emailService.sendWelcomeEmails(users, passwords);
+            });
+        } catch (Exception e) {
+            logger.error("Erro ao gravar lote de {} usuários importados", users.size(), e);
+            for (Integer index : userRows) {
+                results[index] = failed(index, rows.get(index), "Erro ao gravar o lote");
+            }
+            return;
+        }
+
+        for (int i = 0; i < users.size(); i++) {
+            int index = userRows.get(i);
+            User user = users.get(i);
+            results[index] = new UserImportResult(index + 1, user.getUsername(),
+                    UserImportResult.Status.CREATED, user.getId(), null);
+        }
+    }
+
+    private static User toUser(UserDTO dto, String passwordHash) {
+        User user = new User();
+        user.setUsername(dto.getUsername());
+        user.setEmail(dto.getEmail());
+        user.setPassword(passwordHash);
+        user.setFullName(dto.getFullName());
+        user.setActive(dto.isActive());
+
+        Set<String> roles = dto.getRoles();
+        if (roles == null || roles.isEmpty()) {
+            roles = new HashSet<>();
+            roles.add("USER");
+        }
+        user.setRoles(roles);
+        return user;
+    }
+
+    private static UserImportResult rejected(int index, UserDTO dto, String message) {
+        return new UserImportResult(index + 1, dto.getUsername(), UserImportResult.Status.REJECTED, null, message);
+    }
+
+    private static UserImportResult failed(int index, UserDTO dto, String message) {
+        return new UserImportResult(index + 1, dto.getUsername(), UserImportResult.Status.FAILED, null, message);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -1,10 +1,22 @@
 package com.sparkwave.login.repository;
 
 import com.sparkwave.login.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositório para operações de banco de dados relacionadas a usuários.
@@ -12,14 +24,60 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     
+    /**
+     * Filtro da listagem paginada. Os parâmetros nunca são nulos: {@code actives} lista os valores aceitos
+     * de is_active, {@code anyRole} desativa o filtro de perfil e {@code prefix} é um padrão LIKE em minúsculas.
+     */
+    String LIST_FILTER = "WHERE u.active IN :actives " +
+            "AND (:anyRole = true OR u.id IN (SELECT ur.id FROM User ur JOIN ur.roles r WHERE r = :role)) " +
+            "AND (LOWER(u.username) LIKE :prefix ESCAPE '!' OR LOWER(u.email) LIKE :prefix ESCAPE '!')";
+    
+    /**
+     * Busca uma página de IDs de usuários que atendem ao filtro.
+     * 
+     * @param actives Valores aceitos para o status de ativação
+     * @param anyRole true para ignorar o filtro de perfil
+     * @param role Perfil
+     * @param prefix Padrão de prefixo para nome de usuário ou email
+     * @param pageable Página e ordenação
+     * @return Página de IDs
+     */
+    @Query(value = "SELECT u.id FROM User u " + LIST_FILTER,
+           countQuery = "SELECT COUNT(u) FROM User u " + LIST_FILTER)
+    Page<Long> findIdPage(@Param("actives") Collection<Boolean> actives,
+                          @Param("anyRole") boolean anyRole,
+                          @Param("role") String role,
+                          @Param("prefix") String prefix,
+                          Pageable pageable);
+    
+    /**
+     * Busca os dados de listagem dos usuários informados, com os perfis em uma única junção.
+     * 
+     * @param ids IDs dos usuários
+     * @return Linhas com [id, username, email, fullName, active, perfil]; uma linha por perfil
+     */
+    @Query("SELECT u.id, u.username, u.email, u.fullName, u.active, r FROM User u LEFT JOIN u.roles r WHERE u.id IN :ids")
+    List<Object[]> findSummariesWithRoles(@Param("ids") Collection<Long> ids);
+    
     /**
      * Busca um usuário pelo nome de usuário.
      * 
      * @param username Nome de usuário
      * @return Optional contendo o usuário, se encontrado
      */
+    @EntityGraph(attributePaths = "roles")
     Optional<User> findByUsername(String username);
     
+    /**
+     * Busca um usuário pelo ID, com os perfis na mesma consulta.
+     * 
+     * @param id ID do usuário
+     * @return Optional contendo o usuário, se encontrado
+     */
+    @Override
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findById(Long id);
+    
     /**
      * Verifica se existe um usuário com o nome de usuário fornecido.
      * 
@@ -35,5 +93,61 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return true se o email existir, false caso contrário
      */
     Boolean existsByEmail(String email);
+    
+    /**
+     * Retorna, dentre os nomes de usuário informados, os que já estão em uso.
+     * 
+     * @param usernames Nomes de usuário
+     * @return Nomes de usuário existentes
+     */
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+    
+    /**
+     * Retorna, dentre os emails informados, os que já estão em uso.
+     * 
+     * @param emails Emails
+     * @return Emails existentes
+     */
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    
+    /**
+     * Atualiza o hash da senha de um usuário.
+     * 
+     * @param username Nome de usuário
+     * @param password Novo hash da senha
+     * @return Quantidade de linhas atualizadas
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.username = :username")
+    int updatePasswordByUsername(@Param("username") String username, @Param("password") String password);
+    
+    /**
+     * Conta os usuários ativos.
+     * 
+     * @return Quantidade de usuários ativos
+     */
+    long countByActiveTrue();
+    
+    /**
+     * Conta os usuários de cada perfil.
+     * 
+     * @return Linhas com [perfil, quantidade]
+     */
+    @Query("SELECT r, COUNT(u) FROM User u JOIN u.roles r GROUP BY r")
+    List<Object[]> countUsersByRole();
+    
+    /**
+     * Percorre os dados de exportação de todos os usuários ordenados por ID, com os perfis
+     * na mesma consulta e lendo do banco em blocos. As linhas de um mesmo usuário são consecutivas.
+     * 
+     * @return Stream de linhas com [id, username, email, fullName, active, perfil] (deve ser fechado após o uso)
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u.id, u.username, u.email, u.fullName, u.active, r FROM User u LEFT JOIN u.roles r ORDER BY u.id")
+    Stream<Object[]> streamAllWithRoles();
 }
-
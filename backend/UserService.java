@@ -4,13 +4,23 @@ import com.sparkwave.login.model.SignupRequest;
 import com.sparkwave.login.model.User;
 import com.sparkwave.login.model.UserDTO;
 import com.sparkwave.login.repository.UserRepository;
+import com.sparkwave.login.security.PrincipalCache;
+import com.sparkwave.login.security.TokenRevocationIndex;
+import com.sparkwave.login.security.TokenVersionRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -20,6 +30,8 @@ import java.util.Set;
 @Service
 public class UserService {
     
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "username", "email", "fullName", "active");
+    
     @Autowired
     private UserRepository userRepository;
     
@@ -29,6 +41,18 @@ public class UserService {
     @Autowired
     private EmailService emailService;
     
+    @Autowired
+    private PrincipalCache principalCache;
+    
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+    
+    @Autowired
+    private TokenRevocationIndex tokenRevocationIndex;
+    
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    
     /**
      * Registra um novo usuário.
      *
@@ -105,6 +129,9 @@ public class UserService {
     @Transactional
     public User updateUser(Long id, UserDTO userDTO) {
         User user = userRepository.findById(id).orElseThrow();
+        String previousUsername = user.getUsername();
+        Set<String> previousRoles = new HashSet<>(user.getRoles());
+        boolean previousActive = user.isActive();
         
         // Atualizar apenas os campos não nulos
         if (userDTO.getUsername() != null) {
@@ -115,7 +142,8 @@ public class UserService {
             user.setEmail(userDTO.getEmail());
         }
         
-        if (userDTO.getPassword() != null && !userDTO.getPassword().isEmpty()) {
+        boolean passwordChanged = userDTO.getPassword() != null && !userDTO.getPassword().isEmpty();
+        if (passwordChanged) {
             user.setPassword(passwordEncoder.encode(userDTO.getPassword()));
         }
         
@@ -137,6 +165,26 @@ public class UserService {
             user.setActive(userDTO.isActive());
         }
         
+        // Apenas alterações que afetam a autenticação invalidam os tokens já emitidos
+        boolean usernameChanged = !previousUsername.equals(user.getUsername());
+        boolean credentialsChanged = usernameChanged || passwordChanged
+                || !previousRoles.equals(user.getRoles()) || previousActive != user.isActive();
+        if (credentialsChanged) {
+            revokeCredentials(user);
+        } else {
+            // Email e nome completo ficam no cache de autenticação, mas não nos tokens
+            principalCache.evict(user.getUsername());
+        }
+        if (usernameChanged) {
+            principalCache.evict(previousUsername);
+            tokenVersionRegistry.recordAfterCommit(previousUsername, user.getTokenVersion());
+            tokenRevocationIndex.revokeUser(previousUsername);
+        }
+        // Nova senha ou conta desativada encerram também as sessões renováveis
+        if (passwordChanged || (previousActive && !user.isActive())) {
+            refreshTokenService.revokeAllForUser(user.getId());
+        }
+        
         return userRepository.save(user);
     }
     
@@ -153,6 +201,10 @@ public class UserService {
         // Verificar se o status foi alterado
         if (user.isActive() != active) {
             user.setActive(active);
+            revokeCredentials(user);
+            if (!active) {
+                refreshTokenService.revokeAllForUser(id);
+            }
             userRepository.save(user);
             
             // Enviar e-mail de notificação de alteração de status
@@ -170,6 +222,8 @@ public class UserService {
     public void resetPassword(Long id, String password) {
         User user = userRepository.findById(id).orElseThrow();
         user.setPassword(passwordEncoder.encode(password));
+        revokeCredentials(user);
+        refreshTokenService.revokeAllForUser(id);
         userRepository.save(user);
         
         // Enviar e-mail de notificação de redefinição de senha
@@ -183,9 +237,26 @@ public class UserService {
      */
     @Transactional
     public void deleteUser(Long id) {
+        userRepository.findById(id).ifPresent(this::revokeCredentials);
+        refreshTokenService.deleteAllForUser(id);
         userRepository.deleteById(id);
     }
     
+    /**
+     * Incrementa a versão de token do usuário e remove seus dados do cache de autenticação,
+     * para que tokens emitidos anteriormente voltem a ser validados no banco, e revoga
+     * imediatamente os tokens de acesso já emitidos. O cliente obtém um novo token,
+     * com os dados atualizados, pelo refresh token.
+     *
+     * @param user Usuário
+     */
+    private void revokeCredentials(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        tokenVersionRegistry.recordAfterCommit(user.getUsername(), user.getTokenVersion());
+        principalCache.evict(user.getUsername());
+        tokenRevocationIndex.revokeUser(user.getUsername());
+    }
+    
     /**
      * Verifica se um usuário existe pelo ID.
      *
@@ -236,6 +307,62 @@ public class UserService {
         return userRepository.findByUsername(username);
     }
     
+    /**
+     * Verifica se um campo pode ser usado na ordenação da listagem.
+     *
+     * @param property Campo de ordenação
+     * @return true se o campo for permitido
+     */
+    public boolean isSortable(String property) {
+        return SORTABLE_PROPERTIES.contains(property);
+    }
+
+    /**
+     * Busca uma página de usuários para a listagem da administração. A página de IDs é obtida
+     * com o filtro e a ordenação no banco; os dados e perfis dos usuários da página são lidos
+     * em seguida com uma única consulta.
+     *
+     * @param active Status de ativação (opcional)
+     * @param role Perfil (opcional)
+     * @param search Prefixo do nome de usuário ou email (opcional)
+     * @param pageable Página e ordenação
+     * @return Página de usuários
+     * @throws IllegalArgumentException se a ordenação usar um campo não permitido
+     */
+    public Page<UserDTO> findPage(Boolean active, String role, String search, Pageable pageable) {
+        pageable.getSort().forEach(order -> {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Campo de ordenação inválido: " + order.getProperty());
+            }
+        });
+        
+        Collection<Boolean> actives = active == null ? List.of(true, false) : List.of(active);
+        boolean anyRole = role == null || role.isBlank();
+        String prefix = search == null || search.isBlank()
+                ? "%"
+                : escapeLike(search.trim().toLowerCase(Locale.ROOT)) + "%";
+        
+        Page<Long> ids = userRepository.findIdPage(actives, anyRole,
+                anyRole ? "" : role.trim().toUpperCase(Locale.ROOT), prefix, pageable);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.getTotalElements());
+        }
+        
+        Map<Long, UserDTO> users = new HashMap<>();
+        for (Object[] row : userRepository.findSummariesWithRoles(ids.getContent())) {
+            UserDTO dto = users.computeIfAbsent((Long) row[0], id -> new UserDTO(
+                    id, (String) row[1], (String) row[2], null, (String) row[3], (Boolean) row[4], new HashSet<>()));
+            if (row[5] != null) {
+                dto.getRoles().add((String) row[5]);
+            }
+        }
+        return ids.map(users::get);
+    }
+    
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+    
     /**
      * Lista todos os usuários.
      *
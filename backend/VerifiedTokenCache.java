@@ -0,0 +1,68 @@
+package com.sparkwave.login.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Cache de tokens JWT já verificados, indexado pelo hash SHA-256 do token.
+ * Cada entrada expira junto com o próprio token.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final ExpiringCache<String, Claims> cache;
+
+    public VerifiedTokenCache(@Value("${jwt.cache.max-size:10000}") int maxSize) {
+        this.cache = new ExpiringCache<>(maxSize);
+    }
+
+    /**
+     * Obtém as claims de um token verificado anteriormente.
+     *
+     * @param token Token JWT
+     * @return Claims, ou null se o token não estiver no cache
+     */
+    public Claims get(String token) {
+        return cache.get(digest(token));
+    }
+
+    /**
+     * Armazena as claims de um token cuja assinatura já foi verificada.
+     *
+     * @param token Token JWT
+     * @param claims Claims do token
+     */
+    public void put(String token, Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            cache.put(digest(token), claims, expiration.getTime());
+        }
+    }
+
+    /**
+     * Obtém as estatísticas do cache.
+     *
+     * @return Estatísticas
+     */
+    public Map<String, Object> getStats() {
+        return cache.getStats();
+    }
+
+    private String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = messageDigest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível", e);
+        }
+    }
+}
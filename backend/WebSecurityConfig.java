@@ -1,19 +1,27 @@
 package com.sparkwave.login.config;
 
 import com.sparkwave.login.security.AuthTokenFilter;
+import com.sparkwave.login.security.BCryptCostCalibrator;
+import com.sparkwave.login.security.BoundedPasswordEncoder;
+import com.sparkwave.login.security.PasswordHashingBusyException;
+import com.sparkwave.login.security.PasswordHashingExecutor;
 import com.sparkwave.login.security.UserDetailsServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -23,6 +31,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Configuração de segurança da aplicação.
@@ -35,8 +44,23 @@ public class WebSecurityConfig {
     @Value("${sparkwave.app.cors.allowedOrigins}")
     private String allowedOrigins;
     
+    @Value("${sparkwave.app.password.bcrypt-strength:0}")
+    private int bcryptStrength;
+    
+    @Value("${sparkwave.app.password.target-hash-ms:250}")
+    private long targetHashMs;
+    
+    @Value("${sparkwave.app.password.min-bcrypt-strength:10}")
+    private int minBcryptStrength;
+    
+    @Value("${sparkwave.app.password.max-bcrypt-strength:16}")
+    private int maxBcryptStrength;
+    
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
+    
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
 
     /**
      * Cria o filtro de autenticação JWT.
@@ -51,10 +75,26 @@ public class WebSecurityConfig {
      */
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
-        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
+        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider() {
+            @Override
+            protected Authentication createSuccessAuthentication(Object principal, Authentication authentication,
+                                                                 UserDetails user) {
+                try {
+                    return super.createSuccessAuthentication(principal, authentication, user);
+                } catch (PasswordHashingBusyException e) {
+                    // A senha já foi verificada; a regravação do hash é opcional e fica para o próximo login
+                    UsernamePasswordAuthenticationToken result = UsernamePasswordAuthenticationToken.authenticated(
+                            principal, authentication.getCredentials(), user.getAuthorities());
+                    result.setDetails(authentication.getDetails());
+                    return result;
+                }
+            }
+        };
         
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Regrava o hash após um login bem-sucedido quando ele usa um algoritmo ou custo desatualizado
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         
         return authProvider;
     }
@@ -68,11 +108,21 @@ public class WebSecurityConfig {
     }
 
     /**
-     * Configura o codificador de senha.
+     * Configura o codificador de senha. Novos hashes recebem o prefixo do algoritmo ({bcrypt})
+     * e usam o custo configurado ou, se ausente, o custo calibrado na inicialização para o tempo alvo.
+     * Hashes sem prefixo (como os de data.sql) continuam aceitos e são atualizados no próximo login.
+     * O BCrypt é executado no {@link PasswordHashingExecutor}, fora das threads de requisição.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder() {
+        int strength = bcryptStrength > 0
+                ? bcryptStrength
+                : BCryptCostCalibrator.calibrate(targetHashMs, minBcryptStrength, maxBcryptStrength);
+        PasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new BoundedPasswordEncoder(delegating, passwordHashingExecutor);
     }
 
     /**
@@ -0,0 +1,103 @@
+package com.sparkwave.login.repository;
+
+import com.sparkwave.login.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica, pelas estatísticas do Hibernate, que a leitura de usuários e seus perfis não
+ * executa uma consulta por usuário.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserRepositoryQueryCountTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 150})
+    void findAllLoadsRolesInBatches(int count) {
+        createUsers(count);
+
+        long statements = countStatements(() -> assertThat(userRepository.findAll()).hasSize(count)
+                .allSatisfy(user -> assertThat(user.getRoles()).hasSize(2)));
+
+        // Uma consulta de usuários e uma de perfis a cada bloco de 100 (@BatchSize)
+        assertThat(statements).isLessThanOrEqualTo(1 + (count + 99) / 100);
+    }
+
+    @Test
+    void listingPageUsesConstantQueriesRegardlessOfPageSize() {
+        createUsers(150);
+
+        for (int size : List.of(10, 100)) {
+            long statements = countStatements(() -> {
+                Page<Long> ids = userRepository.findIdPage(List.of(true, false), true, "", "%",
+                        PageRequest.of(0, size, Sort.by("username")));
+                assertThat(userRepository.findSummariesWithRoles(ids.getContent())).hasSize(size * 2);
+            });
+
+            // Página de IDs, contagem e dados com perfis
+            assertThat(statements).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void findByUsernameFetchesRolesInTheSameQuery() {
+        createUsers(1);
+
+        long statements = countStatements(() -> assertThat(userRepository.findByUsername("user0"))
+                .hasValueSatisfying(user -> assertThat(user.getRoles()).hasSize(2)));
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    private void createUsers(int count) {
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setPassword("hash");
+            user.setRoles(Set.of("ROLE_USER", "ROLE_ADMIN"));
+            entityManager.persist(user);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private long countStatements(Runnable action) {
+        entityManager.clear();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,94 @@
+package com.sparkwave.login.service;
+
+import com.sparkwave.login.model.AccessLogView;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifica que o formato colunar, decodificado, reproduz as mesmas linhas da exportação em CSV.
+ */
+class ColumnarAccessLogExportWriterTest {
+
+    @Test
+    void decodedRowsMatchCsvExport() throws IOException {
+        // Mais linhas que um bloco e mais IPs distintos que o dicionário comporta, para
+        // cobrir vários blocos e a reinicialização do dicionário
+        List<AccessLogView> logs = new ArrayList<>();
+        LocalDateTime time = LocalDateTime.of(2024, 3, 1, 8, 0);
+        for (int i = 0; i < 70_000; i++) {
+            logs.add(new AccessLogView(
+                    i % 3 == 0 ? 1_000_000L - i : (long) i,
+                    i % 11 == 0 ? null : (long) (i % 50 + 1),
+                    i % 11 == 0 ? null : "usuário" + (i % 50),
+                    time.plusNanos((long) i * 1_234_000_000L + (i % 1000) * 1_000_000L),
+                    "10." + (i >> 16) + "." + ((i >> 8) & 0xFF) + "." + (i & 0xFF),
+                    i % 7 == 0 ? null : "Mozilla/5.0, \"bench\" " + (i % 20),
+                    i % 2 == 0 ? "LOGIN" : "LOGOUT",
+                    i % 5 == 0 ? "FAILED" : "SUCCESS"));
+        }
+
+        ByteArrayOutputStream columnar = new ByteArrayOutputStream();
+        AccessLogExportWriter writer = new ColumnarAccessLogExportWriter(columnar);
+        for (AccessLogView log : logs) {
+            writer.write(log);
+        }
+        writer.finish();
+
+        List<AccessLogView> decoded = new ArrayList<>();
+        ColumnarAccessLogExportReader reader = new ColumnarAccessLogExportReader(
+                new ByteArrayInputStream(columnar.toByteArray()));
+        AccessLogView log;
+        while ((log = reader.read()) != null) {
+            decoded.add(log);
+        }
+
+        assertThat(decoded).isEqualTo(logs);
+        assertThat(toCsv(decoded)).isEqualTo(toCsv(logs));
+    }
+
+    @Test
+    void emptyExportDecodesToNoRows() throws IOException {
+        ByteArrayOutputStream columnar = new ByteArrayOutputStream();
+        new ColumnarAccessLogExportWriter(columnar).finish();
+
+        ColumnarAccessLogExportReader reader = new ColumnarAccessLogExportReader(
+                new ByteArrayInputStream(columnar.toByteArray()));
+
+        assertThat(reader.read()).isNull();
+    }
+
+    @Test
+    void truncatedExportFails() throws IOException {
+        ByteArrayOutputStream columnar = new ByteArrayOutputStream();
+        AccessLogExportWriter writer = new ColumnarAccessLogExportWriter(columnar);
+        writer.write(new AccessLogView(1L, 1L, "admin", LocalDateTime.of(2024, 1, 1, 0, 0),
+                "127.0.0.1", "curl", "LOGIN", "SUCCESS"));
+        writer.finish();
+        byte[] bytes = columnar.toByteArray();
+
+        ColumnarAccessLogExportReader reader = new ColumnarAccessLogExportReader(
+                new ByteArrayInputStream(bytes, 0, bytes.length - 3));
+
+        assertThatThrownBy(reader::read).isInstanceOf(IOException.class);
+    }
+
+    private static String toCsv(List<AccessLogView> logs) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AccessLogExportWriter writer = new CsvAccessLogExportWriter(out);
+        for (AccessLogView log : logs) {
+            writer.write(log);
+        }
+        writer.finish();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
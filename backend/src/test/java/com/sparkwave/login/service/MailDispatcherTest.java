@@ -0,0 +1,180 @@
+package com.sparkwave.login.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testa a fila de envio de e-mails contra um servidor SMTP local (GreenMail).
+ */
+class MailDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final CountingMailSender mailSender = new CountingMailSender();
+
+    private MailDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        mailSender.gate.countDown();
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    void sendsQueuedMessagesAsOneBatchOverOneConnection() throws Exception {
+        dispatcher = startDispatcher(100, 200);
+        mailSender.holdFirstConnection();
+
+        CompletableFuture<Boolean> first = submit("primeiro@example.com");
+        assertThat(mailSender.firstConnectionStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        List<CompletableFuture<Boolean>> batch = List.of(
+                submit("a@example.com"), submit("b@example.com"), submit("c@example.com"),
+                submit("d@example.com"), submit("e@example.com"));
+        mailSender.gate.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isTrue();
+        for (CompletableFuture<Boolean> delivery : batch) {
+            assertThat(delivery.get(5, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(greenMail.getReceivedMessages()).hasSize(6);
+        // Uma conexão para a primeira mensagem e uma para o lote com as demais
+        assertThat(mailSender.connections.get()).isEqualTo(2);
+        assertThat(dispatcher.getStats()).containsEntry("sent", 6L);
+    }
+
+    @Test
+    void retriesWithBackoffAfterTransientFailure() throws Exception {
+        dispatcher = startDispatcher(100, 300);
+        mailSender.failNextConnections(1);
+
+        long startTime = System.nanoTime();
+        CompletableFuture<Boolean> delivery = submit("retry@example.com");
+
+        assertThat(delivery.get(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime)).isGreaterThanOrEqualTo(300);
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+        assertThat(mailSender.connections.get()).isEqualTo(2);
+        assertThat(dispatcher.getStats())
+                .containsEntry("retried", 1L)
+                .containsEntry("sent", 1L)
+                .containsEntry("failed", 0L);
+    }
+
+    @Test
+    void abandonsMessageAfterMaxAttempts() throws Exception {
+        dispatcher = startDispatcher(100, 50);
+        mailSender.failNextConnections(Integer.MAX_VALUE);
+
+        CompletableFuture<Boolean> delivery = submit("down@example.com");
+
+        assertThat(delivery.get(10, TimeUnit.SECONDS)).isFalse();
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+        assertThat(mailSender.connections.get()).isEqualTo(3);
+        assertThat(dispatcher.getStats()).containsEntry("failed", 1L);
+    }
+
+    @Test
+    void rejectsMessagesWhenQueueIsFull() throws Exception {
+        dispatcher = startDispatcher(1, 200);
+        mailSender.holdFirstConnection();
+
+        CompletableFuture<Boolean> inFlight = submit("enviando@example.com");
+        assertThat(mailSender.firstConnectionStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Boolean> queued = submit("fila@example.com");
+
+        boolean accepted = dispatcher.submit(new MailDispatcher.OutboundMail(
+                "excedente@example.com", "Teste", "Corpo", false, null));
+
+        assertThat(accepted).isFalse();
+        assertThat(dispatcher.getStats()).containsEntry("rejected", 1L);
+
+        mailSender.gate.countDown();
+        assertThat(inFlight.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(greenMail.getReceivedMessages()).hasSize(2);
+    }
+
+    private MailDispatcher startDispatcher(int queueCapacity, long initialBackoffMs) {
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+        MailDispatcher mailDispatcher = new MailDispatcher();
+        ReflectionTestUtils.setField(mailDispatcher, "mailSender", mailSender);
+        ReflectionTestUtils.setField(mailDispatcher, "fromEmail", "noreply@sparkwave.com");
+        ReflectionTestUtils.setField(mailDispatcher, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(mailDispatcher, "batchSize", 20);
+        ReflectionTestUtils.setField(mailDispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(mailDispatcher, "initialBackoffMs", initialBackoffMs);
+        ReflectionTestUtils.setField(mailDispatcher, "shutdownTimeoutMs", 5000L);
+        mailDispatcher.start();
+        return mailDispatcher;
+    }
+
+    private CompletableFuture<Boolean> submit(String to) {
+        CompletableFuture<Boolean> delivery = new CompletableFuture<>();
+        boolean accepted = dispatcher.submit(new MailDispatcher.OutboundMail(
+                to, "Teste", "Corpo do e-mail", false, delivery::complete));
+        assertThat(accepted).isTrue();
+        return delivery;
+    }
+
+    /**
+     * Remetente que conta as conexões SMTP abertas e permite segurar a primeira conexão ou
+     * simular falhas transitórias de conexão.
+     */
+    private static class CountingMailSender extends JavaMailSenderImpl {
+
+        final AtomicInteger connections = new AtomicInteger();
+
+        final CountDownLatch firstConnectionStarted = new CountDownLatch(1);
+
+        final CountDownLatch gate = new CountDownLatch(1);
+
+        private volatile boolean holdFirst;
+
+        private final AtomicInteger failuresLeft = new AtomicInteger();
+
+        void holdFirstConnection() {
+            holdFirst = true;
+        }
+
+        void failNextConnections(int count) {
+            failuresLeft.set(count);
+        }
+
+        @Override
+        protected Transport connectTransport() throws MessagingException {
+            int connection = connections.incrementAndGet();
+            if (holdFirst && connection == 1) {
+                firstConnectionStarted.countDown();
+                try {
+                    gate.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failuresLeft.getAndDecrement() > 0) {
+                throw new MessagingException("Falha transitória simulada");
+            }
+            return super.connectTransport();
+        }
+    }
+}
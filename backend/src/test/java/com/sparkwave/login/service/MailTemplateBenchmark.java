@@ -0,0 +1,73 @@
+package com.sparkwave.login.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a renderização do e-mail de boas-vindas com um {@link MailTemplate} compilado e com
+ * o {@code String.format} usado antes, que analisa o formato a cada envio.
+ * Para executar, compile as fontes de teste ({@code mvn test-compile}) e rode o método
+ * {@code main} com o classpath de teste.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MailTemplateBenchmark {
+
+    private static final String FORMAT =
+            "Olá %s,\n\n" +
+            "Sua conta foi criada na plataforma da SparkWave Consultoria Empresarial.\n\n" +
+            "Suas credenciais de acesso são:\n" +
+            "Usuário: %s\n" +
+            "Senha: %s\n\n" +
+            "Recomendamos que altere sua senha após o primeiro acesso.\n\n" +
+            "Atenciosamente,\n" +
+            "Equipe SparkWave";
+
+    private static final MailTemplate TEMPLATE = MailTemplate.compile(
+            "Olá {fullName},\n\n" +
+            "Sua conta foi criada na plataforma da SparkWave Consultoria Empresarial.\n\n" +
+            "Suas credenciais de acesso são:\n" +
+            "Usuário: {username}\n" +
+            "Senha: {password}\n\n" +
+            "Recomendamos que altere sua senha após o primeiro acesso.\n\n" +
+            "Atenciosamente,\n" +
+            "Equipe SparkWave");
+
+    private final Map<String, Object> values = Map.of(
+            "fullName", "Maria da Silva",
+            "username", "maria.silva",
+            "password", "Xk3!pQ9z");
+
+    @Benchmark
+    public String compiledTemplate() {
+        return TEMPLATE.render(values);
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format(FORMAT, values.get("fullName"), values.get("username"), values.get("password"));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MailTemplateBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
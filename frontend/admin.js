@@ -12,7 +12,7 @@ let currentPage = 'dashboard';
 let usersData = [];
 let logsData = [];
 let usersPagination = { page: 0, size: 10, totalPages: 1 };
-let logsPagination = { page: 0, size: 10, totalPages: 1 };
+let logsPagination = { page: 0, size: 10, totalPages: 1, cursors: [null] };
 let currentAction = null;
 let currentUserId = null;
 
@@ -245,7 +245,16 @@ function updateUsersPagination() {
 // Carregar logs de acesso
 async function loadLogs(page = 0, startDate = null, endDate = null) {
     try {
-        let url = `${API_URL}${ADMIN_ENDPOINT}/access-logs?page=${page}&size=${logsPagination.size}`;
+        if (page === 0) {
+            logsPagination.cursors = [null];
+        }
+        
+        let url = `${API_URL}${ADMIN_ENDPOINT}/access-logs?size=${logsPagination.size}`;
+        
+        const cursor = logsPagination.cursors[page];
+        if (cursor) {
+            url += `&cursor=${encodeURIComponent(cursor)}`;
+        }
         
         if (startDate && endDate) {
             const start = new Date(startDate);
@@ -261,8 +270,9 @@ async function loadLogs(page = 0, startDate = null, endDate = null) {
         const data = await response.json();
         
         logsData = data.content || data;
-        logsPagination.page = data.number || 0;
-        logsPagination.totalPages = data.totalPages || 1;
+        logsPagination.page = page;
+        logsPagination.cursors[page + 1] = data.nextCursor;
+        logsPagination.totalPages = data.hasMore ? page + 2 : page + 1;
         
         updateLogsTable();
         updateLogsPagination();
@@ -293,7 +303,7 @@ function updateLogsTable() {
         
         tr.innerHTML = `
             <td>${log.id}</td>
-            <td>${log.user?.username || '-'}</td>
+            <td>${log.username || '-'}</td>
             <td>${formattedDate}</td>
             <td>${log.ipAddress || '-'}</td>
             <td>${log.action || '-'}</td>
@@ -516,17 +526,66 @@ function confirmLogout() {
 async function logout() {
     try {
         await fetchWithAuth(`${API_URL}${AUTH_ENDPOINT}/signout`, {
-            method: 'POST'
+            method: 'POST',
+            headers: {
+                'Content-Type': 'application/json'
+            },
+            body: JSON.stringify({ refreshToken: localStorage.getItem('refresh_token') })
         });
     } catch (error) {
         console.error('Erro ao fazer logout:', error);
     } finally {
-        localStorage.removeItem('jwt_token');
-        localStorage.removeItem('user_info');
+        clearSession();
         window.location.href = '../index.html';
     }
 }
 
+// Remover os dados da sessão
+function clearSession() {
+    localStorage.removeItem('jwt_token');
+    localStorage.removeItem('refresh_token');
+    localStorage.removeItem('user_info');
+}
+
+// Renovação em andamento, compartilhada entre requisições simultâneas,
+// pois cada refresh token só pode ser usado uma vez
+let refreshPromise = null;
+
+// Obter um novo token de acesso com o refresh token
+function refreshAccessToken(expiredToken) {
+    // Outra aba já renovou os tokens compartilhados no localStorage
+    if (localStorage.getItem('jwt_token') !== expiredToken) {
+        return Promise.resolve(true);
+    }
+    if (!refreshPromise) {
+        refreshPromise = (async () => {
+            const refreshToken = localStorage.getItem('refresh_token');
+            if (!refreshToken) {
+                return false;
+            }
+            
+            const response = await fetch(`${API_URL}${AUTH_ENDPOINT}/refresh`, {
+                method: 'POST',
+                headers: {
+                    'Content-Type': 'application/json'
+                },
+                body: JSON.stringify({ refreshToken })
+            });
+            if (!response.ok) {
+                return false;
+            }
+            
+            const data = await response.json();
+            localStorage.setItem('jwt_token', data.token);
+            localStorage.setItem('refresh_token', data.refreshToken);
+            return true;
+        })().finally(() => {
+            refreshPromise = null;
+        });
+    }
+    return refreshPromise;
+}
+
 // Utilitário para fazer requisições autenticadas
 async function fetchWithAuth(url, options = {}) {
     const token = localStorage.getItem('jwt_token');
@@ -535,20 +594,24 @@ async function fetchWithAuth(url, options = {}) {
         throw new Error('Não autenticado');
     }
     
-    const headers = {
-        ...options.headers,
-        'Authorization': `Bearer ${token}`
-    };
-    
-    const response = await fetch(url, {
+    const send = (accessToken) => fetch(url, {
         ...options,
-        headers
+        headers: {
+            ...options.headers,
+            'Authorization': `Bearer ${accessToken}`
+        }
     });
     
+    let response = await send(token);
+    
+    if (response.status === 401 && await refreshAccessToken(token)) {
+        // Token de acesso expirado: repetir uma vez com o token renovado
+        response = await send(localStorage.getItem('jwt_token'));
+    }
+    
     if (response.status === 401) {
-        // Token expirado ou inválido
-        localStorage.removeItem('jwt_token');
-        localStorage.removeItem('user_info');
+        // Sessão expirada ou revogada
+        clearSession();
         window.location.href = '../index.html';
         throw new Error('Sessão expirada');
     }
@@ -115,6 +115,7 @@ async function handleLogin() {
             
             // Armazenar token JWT no localStorage
             localStorage.setItem('jwt_token', data.token);
+            localStorage.setItem('refresh_token', data.refreshToken);
             localStorage.setItem('user_info', JSON.stringify({
                 id: data.id,
                 username: data.username,
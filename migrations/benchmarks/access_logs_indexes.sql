@@ -0,0 +1,51 @@
+-- Benchmark dos índices de access_logs em PostgreSQL com 10 milhões de registros.
+-- Uso: psql -d <banco_de_teste> -f access_logs_indexes.sql
+-- Executa as consultas do AccessLogRepository e do dashboard sem índices, cria os índices
+-- da migração V2 e repete as mesmas consultas. Compare os tempos de "Execution Time".
+-- NÃO execute em produção: o script recria as tabelas bench_users e bench_access_logs.
+
+\timing on
+
+DROP TABLE IF EXISTS bench_access_logs;
+DROP TABLE IF EXISTS bench_users;
+
+CREATE TABLE bench_users (
+    id BIGINT PRIMARY KEY,
+    username VARCHAR(50) NOT NULL
+);
+
+INSERT INTO bench_users (id, username)
+SELECT g, 'user' || g FROM generate_series(1, 10000) AS g;
+
+CREATE TABLE bench_access_logs (
+    id BIGINT PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES bench_users (id),
+    access_time TIMESTAMP NOT NULL,
+    ip_address VARCHAR(50),
+    user_agent VARCHAR(255),
+    action VARCHAR(100),
+    status VARCHAR(50)
+);
+
+INSERT INTO bench_access_logs (id, user_id, access_time, ip_address, user_agent, action, status)
+SELECT g,
+       1 + (g % 10000),
+       TIMESTAMP '2024-01-01' + (g * INTERVAL '3 seconds'),
+       '10.0.' || (g % 256) || '.' || (g % 199),
+       'Mozilla/5.0 (bench ' || (g % 20) || ')',
+       (ARRAY['LOGIN', 'LOGIN', 'LOGIN', 'LOGOUT', 'REGISTER'])[1 + (g % 5)],
+       CASE WHEN g % 7 = 0 THEN 'FAILED' ELSE 'SUCCESS' END
+FROM generate_series(1, 10000000) AS g;
+
+ANALYZE bench_access_logs;
+
+\echo '=== Sem índices ==='
+\i access_logs_queries.sql
+
+CREATE INDEX idx_bench_user_time ON bench_access_logs (user_id, access_time, id);
+CREATE INDEX idx_bench_time ON bench_access_logs (access_time, id);
+CREATE INDEX idx_bench_status_time ON bench_access_logs (status, access_time, id);
+ANALYZE bench_access_logs;
+
+\echo '=== Com índices ==='
+\i access_logs_queries.sql
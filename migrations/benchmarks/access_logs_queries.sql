@@ -0,0 +1,25 @@
+-- Consultas medidas pelo benchmark de índices (equivalentes às do AccessLogRepository e do dashboard).
+
+-- Logs de um usuário em um período
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bench_access_logs
+WHERE user_id = 4242 AND access_time BETWEEN TIMESTAMP '2024-06-01' AND TIMESTAMP '2024-07-01'
+ORDER BY access_time DESC, id DESC LIMIT 51;
+
+-- Logs de um período (primeira página)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bench_access_logs
+WHERE access_time BETWEEN TIMESTAMP '2024-06-01' AND TIMESTAMP '2024-06-08'
+ORDER BY access_time DESC, id DESC LIMIT 51;
+
+-- Logs por status (primeira página)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bench_access_logs
+WHERE status = 'FAILED'
+ORDER BY access_time DESC, id DESC LIMIT 51;
+
+-- Contagem de logins da última semana (dashboard)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT action, status, COUNT(*) FROM bench_access_logs
+WHERE action = 'LOGIN' AND access_time BETWEEN TIMESTAMP '2024-06-01' AND TIMESTAMP '2024-06-08'
+GROUP BY action, status;
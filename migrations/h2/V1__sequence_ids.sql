@@ -0,0 +1,11 @@
+-- Migração dos IDs de users e access_logs de IDENTITY para sequências com alocação em blocos (pooled-lo).
+-- Necessária apenas para bancos H2 em arquivo; o banco em memória é recriado pelo Hibernate.
+-- O incremento deve ser igual ao allocationSize das entidades (50).
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE users_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM users);
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE IF NOT EXISTS access_logs_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE access_logs_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM access_logs);
+ALTER TABLE access_logs ALTER COLUMN id DROP IDENTITY;
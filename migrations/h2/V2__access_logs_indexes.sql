@@ -0,0 +1,7 @@
+-- Índices para os padrões de consulta de access_logs (por usuário, período e status).
+-- A contagem do dashboard usa o índice por período.
+-- Necessária apenas para bancos H2 em arquivo; o banco em memória é recriado pelo Hibernate.
+
+CREATE INDEX IF NOT EXISTS idx_access_logs_user_time ON access_logs (user_id, access_time, id);
+CREATE INDEX IF NOT EXISTS idx_access_logs_time ON access_logs (access_time, id);
+CREATE INDEX IF NOT EXISTS idx_access_logs_status_time ON access_logs (status, access_time, id);
@@ -0,0 +1,12 @@
+-- Migração dos IDs de users e access_logs de IDENTITY para sequências com alocação em blocos (pooled-lo).
+-- O incremento deve ser igual ao allocationSize das entidades (50).
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 1, false);
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id DROP DEFAULT;
+
+CREATE SEQUENCE IF NOT EXISTS access_logs_seq INCREMENT BY 50;
+SELECT setval('access_logs_seq', COALESCE((SELECT MAX(id) FROM access_logs), 0) + 1, false);
+ALTER TABLE access_logs ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE access_logs ALTER COLUMN id DROP DEFAULT;
@@ -0,0 +1,15 @@
+-- Índices para os padrões de consulta de access_logs (por usuário, período e status).
+-- A contagem do dashboard usa o índice por período; ver benchmarks/RESULTADOS.md.
+-- CONCURRENTLY evita bloquear gravações; execute fora de uma transação.
+-- O id nas colunas finais atende à paginação por cursor em (access_time, id).
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_access_logs_user_time
+    ON access_logs (user_id, access_time, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_access_logs_time
+    ON access_logs (access_time, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_access_logs_status_time
+    ON access_logs (status, access_time, id);
+
+ANALYZE access_logs;